@@ -0,0 +1,100 @@
+package plugin.admob.benchmark;
+
+import com.google.android.gms.ads.FakeAdNetwork;
+import com.naef.jnlua.LuaState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Map;
+
+/**
+ * A whole load() or show() round trip: UI thread work, the SDK callbacks of the delegates,
+ * and building and delivering every event they send (dispatchLuaEvent() down to the Lua listener).
+ * Lua tables created by the fake LuaState count towards the allocations, like they would on the Lua heap.
+ */
+@State(Scope.Thread)
+public class EventPipelineBenchmark {
+    @Param({"json", "table"})
+    public String dataFormat;
+
+    @Param({"false", "true"})
+    public boolean coalesceEvents;
+
+    private PluginFixture plugin;
+    private Map<Object, Object> interstitialLoadOptions;
+    private Map<Object, Object> noFillLoadOptions;
+    private Map<Object, Object> rewardedLoadOptions;
+    private Map<Object, Object> bannerLoadOptions;
+    private Map<Object, Object> rewardedShowOptions;
+    private Map<Object, Object> bannerShowOptions;
+    private Map<Object, Object> bannerHideOptions;
+
+    @Setup
+    public void setUp() {
+        plugin = new PluginFixture(LuaState.table(
+                "dataFormat", dataFormat,
+                "coalesceEvents", coalesceEvents));
+
+        interstitialLoadOptions = LuaState.table("adUnitId", PluginFixture.INTERSTITIAL_ID);
+        noFillLoadOptions = LuaState.table("adUnitId", PluginFixture.INTERSTITIAL_ID + "-nofill");
+        rewardedLoadOptions = LuaState.table("adUnitId", PluginFixture.REWARDED_ID);
+        bannerLoadOptions = LuaState.table("adUnitId", PluginFixture.BANNER_ID);
+        rewardedShowOptions = LuaState.table("adUnitId", PluginFixture.REWARDED_ID);
+        bannerShowOptions = LuaState.table(
+                "adUnitId", PluginFixture.BANNER_ID,
+                "y", "bottom",
+                "bgColor", "#202020");
+        bannerHideOptions = LuaState.table("adUnitId", PluginFixture.BANNER_ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        FakeAdNetwork.setFill(true);
+        plugin.close();
+    }
+
+    // 'loaded' event, answered by the full pool after the first call
+    @Benchmark
+    public Object loadInterstitial() {
+        return plugin.call("load", "interstitial", interstitialLoadOptions);
+    }
+
+    // 'failed' event with error code, message and category
+    @Benchmark
+    public Object loadInterstitialNoFill() {
+        FakeAdNetwork.setFill(false);
+        try {
+            return plugin.call("load", "interstitial", noFillLoadOptions);
+        } finally {
+            FakeAdNetwork.setFill(true);
+        }
+    }
+
+    // 'loaded', then 'displayed', 'reward' and 'closed' events
+    @Benchmark
+    public Object loadAndShowRewarded() {
+        plugin.call("load", "rewardedVideo", rewardedLoadOptions);
+        return plugin.call("show", "rewardedVideo", rewardedShowOptions);
+    }
+
+    // new AdView, then 'loaded' event
+    @Benchmark
+    public Object loadBanner() {
+        return plugin.call("load", "banner", bannerLoadOptions);
+    }
+
+    // overlay layout pass, then 'displayed' and 'hidden' events
+    @Benchmark
+    public Object showAndHideBanner() {
+        if (!Boolean.TRUE.equals(plugin.call("isLoaded", "banner", bannerHideOptions))) {
+            plugin.call("load", "banner", bannerLoadOptions);
+        }
+        plugin.call("show", "banner", bannerShowOptions);
+        return plugin.call("hide", bannerHideOptions);
+    }
+}
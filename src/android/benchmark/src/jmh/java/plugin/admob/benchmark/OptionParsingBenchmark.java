@@ -0,0 +1,73 @@
+package plugin.admob.benchmark;
+
+import com.naef.jnlua.LuaState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Map;
+
+/**
+ * Lua-thread cost of load() and show(): argument checks and option table parsing.
+ * The UI thread work they post is dropped, see {@link EventPipelineBenchmark} for that part
+ * and for banner show(), which queues its layout change for the UI thread.
+ */
+@State(Scope.Thread)
+public class OptionParsingBenchmark {
+    private PluginFixture plugin;
+    private Map<Object, Object> interstitialLoadOptions;
+    private Map<Object, Object> bannerLoadOptions;
+    private Map<Object, Object> waterfallLoadOptions;
+    private Map<Object, Object> interstitialShowOptions;
+
+    @Setup
+    public void setUp() {
+        plugin = new PluginFixture(LuaState.table());
+        plugin.activity.setUiThreadEnabled(false);
+
+        interstitialLoadOptions = LuaState.table(
+                "adUnitId", PluginFixture.INTERSTITIAL_ID,
+                "childSafe", true,
+                "maxAdContentRating", "PG",
+                "keywords", LuaState.array("games", "puzzle", "casual"),
+                "hasUserConsent", true,
+                "poolSize", 2);
+        bannerLoadOptions = LuaState.table(
+                "adUnitId", PluginFixture.BANNER_ID,
+                "hasUserConsent", false);
+        waterfallLoadOptions = LuaState.table(
+                "adUnitIds", LuaState.array(PluginFixture.INTERSTITIAL_ID, "ca-app-pub-3940256099942544/8691691433", "ca-app-pub-3940256099942544/1033173713"),
+                "strategy", "race",
+                "raceLimit", 2);
+        interstitialShowOptions = LuaState.table(
+                "adUnitId", PluginFixture.INTERSTITIAL_ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        plugin.close();
+    }
+
+    @Benchmark
+    public Object loadInterstitial() {
+        return plugin.call("load", "interstitial", interstitialLoadOptions);
+    }
+
+    @Benchmark
+    public Object loadBanner() {
+        return plugin.call("load", "banner", bannerLoadOptions);
+    }
+
+    @Benchmark
+    public Object loadWaterfall() {
+        return plugin.call("load", "interstitial", waterfallLoadOptions);
+    }
+
+    @Benchmark
+    public Object showInterstitial() {
+        return plugin.call("show", "interstitial", interstitialShowOptions);
+    }
+}
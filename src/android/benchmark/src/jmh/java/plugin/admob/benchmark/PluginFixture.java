@@ -0,0 +1,68 @@
+package plugin.admob.benchmark;
+
+import com.ansca.corona.CoronaActivity;
+import com.ansca.corona.CoronaEnvironment;
+import com.ansca.corona.CoronaLua;
+import com.ansca.corona.CoronaRuntime;
+import com.naef.jnlua.JavaFunction;
+import com.naef.jnlua.LuaState;
+
+import java.util.Map;
+
+import plugin.admob.LuaLoader;
+
+/**
+ * A required and initialized plugin on top of the fakes.
+ * <p>
+ * The benchmark thread plays both the Lua thread and the UI thread, and runtime tasks run as soon as they are sent.
+ */
+final class PluginFixture {
+    static final String INTERSTITIAL_ID = "ca-app-pub-3940256099942544/1033173712";
+    static final String REWARDED_ID = "ca-app-pub-3940256099942544/5224354917";
+    static final String BANNER_ID = "ca-app-pub-3940256099942544/6300978111";
+
+    private static final JavaFunction LISTENER = new JavaFunction() {
+        @Override
+        public int invoke(LuaState luaState) {
+            return 0;
+        }
+    };
+
+    final LuaState L = new LuaState();
+    final CoronaActivity activity = new CoronaActivity();
+    final CoronaRuntime runtime = new CoronaRuntime(L);
+    final LuaLoader loader;
+
+    PluginFixture(Map<Object, Object> initOptions) {
+        CoronaEnvironment.setCoronaActivity(activity);
+
+        // require("plugin.admob")
+        loader = new LuaLoader();
+        L.setArgs("plugin.admob");
+        loader.invoke(L);
+        loader.onLoaded(runtime);
+
+        // admob.init() finishes on the plugin's init thread, wait for the 'init' event
+        long dispatched = CoronaLua.getDispatchedEventCount();
+        call("init", LISTENER, initOptions);
+        long deadline = System.nanoTime() + 10000000000L;
+        while (CoronaLua.getDispatchedEventCount() == dispatched) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("admob.init() did not send the 'init' event");
+            }
+            Thread.yield();
+        }
+    }
+
+    // calls admob.<name>(args...) and returns its first result, or null
+    Object call(String name, Object... args) {
+        L.setArgs(args);
+        int results = L.getFunction(name).invoke(L);
+        return results > 0 ? L.get(-results) : null;
+    }
+
+    void close() {
+        loader.onExiting(runtime);
+        CoronaEnvironment.setCoronaActivity(null);
+    }
+}
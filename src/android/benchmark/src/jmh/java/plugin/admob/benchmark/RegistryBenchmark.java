@@ -0,0 +1,67 @@
+package plugin.admob.benchmark;
+
+import com.naef.jnlua.LuaState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Map;
+
+/**
+ * Calls that only read the registry on the Lua thread, with a registry holding several ad units per format.
+ */
+@State(Scope.Thread)
+public class RegistryBenchmark {
+    private static final int AD_UNITS_PER_FORMAT = 8;
+
+    private PluginFixture plugin;
+    private Map<Object, Object> interstitialOptions;
+    private Map<Object, Object> missingOptions;
+
+    @Setup
+    public void setUp() {
+        plugin = new PluginFixture(LuaState.table());
+        for (int i = 0; i < AD_UNITS_PER_FORMAT; i++) {
+            plugin.call("load", "interstitial", LuaState.table("adUnitId", PluginFixture.INTERSTITIAL_ID + i));
+            plugin.call("load", "rewardedVideo", LuaState.table("adUnitId", PluginFixture.REWARDED_ID + i));
+        }
+        plugin.call("load", "banner", LuaState.table("adUnitId", PluginFixture.BANNER_ID));
+        plugin.call("show", "banner", LuaState.table("y", "top"));
+
+        interstitialOptions = LuaState.table("adUnitId", PluginFixture.INTERSTITIAL_ID + (AD_UNITS_PER_FORMAT / 2));
+        missingOptions = LuaState.table("adUnitId", "ca-app-pub-3940256099942544/0000000000");
+    }
+
+    @TearDown
+    public void tearDown() {
+        plugin.close();
+    }
+
+    @Benchmark
+    public Object isLoadedInterstitial() {
+        return plugin.call("isLoaded", "interstitial", interstitialOptions);
+    }
+
+    @Benchmark
+    public Object isLoadedMissing() {
+        return plugin.call("isLoaded", "interstitial", missingOptions);
+    }
+
+    @Benchmark
+    public Object isLoadedDefaultBanner() {
+        return plugin.call("isLoaded", "banner");
+    }
+
+    @Benchmark
+    public Object height() {
+        return plugin.call("height");
+    }
+
+    @Benchmark
+    public Object getStats() {
+        return plugin.call("getStats");
+    }
+}
@@ -0,0 +1,45 @@
+package android.app;
+
+import android.content.Context;
+import android.view.Display;
+import android.view.Window;
+import android.view.WindowManager;
+
+/**
+ * Benchmark fake of the Android activity.
+ * <p>
+ * The benchmark thread plays the UI thread: runOnUiThread() runs the task right away,
+ * or drops it when UI work is switched off to measure only the Lua side of a call.
+ */
+public class Activity extends Context {
+    private final Display display = new Display();
+    private final Window window = new Window(this);
+    private boolean uiThreadEnabled = true;
+
+    public void setUiThreadEnabled(boolean enabled) {
+        uiThreadEnabled = enabled;
+    }
+
+    public void runOnUiThread(Runnable action) {
+        if (uiThreadEnabled) {
+            action.run();
+        }
+    }
+
+    public boolean isFinishing() {
+        return false;
+    }
+
+    public WindowManager getWindowManager() {
+        return new WindowManager() {
+            @Override
+            public Display getDefaultDisplay() {
+                return display;
+            }
+        };
+    }
+
+    public Window getWindow() {
+        return window;
+    }
+}
@@ -0,0 +1,7 @@
+package android.content;
+
+/**
+ * Benchmark fake of the Android content resolver.
+ */
+public class ContentResolver {
+}
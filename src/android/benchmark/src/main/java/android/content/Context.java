@@ -0,0 +1,49 @@
+package android.content;
+
+import android.content.pm.PackageManager;
+import android.content.res.Resources;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark fake of the Android context.
+ */
+public abstract class Context {
+    private final ContentResolver contentResolver = new ContentResolver();
+    private final PackageManager packageManager = new PackageManager();
+    private final Resources resources = new Resources();
+    private final List<ComponentCallbacks> componentCallbacks = new ArrayList<>();
+
+    public Context getApplicationContext() {
+        return this;
+    }
+
+    public ContentResolver getContentResolver() {
+        return contentResolver;
+    }
+
+    public PackageManager getPackageManager() {
+        return packageManager;
+    }
+
+    public String getPackageName() {
+        return "com.coronalabs.benchmark";
+    }
+
+    public Resources getResources() {
+        return resources;
+    }
+
+    public void registerComponentCallbacks(ComponentCallbacks callback) {
+        componentCallbacks.add(callback);
+    }
+
+    public void unregisterComponentCallbacks(ComponentCallbacks callback) {
+        componentCallbacks.remove(callback);
+    }
+
+    public List<ComponentCallbacks> getComponentCallbacks() {
+        return componentCallbacks;
+    }
+}
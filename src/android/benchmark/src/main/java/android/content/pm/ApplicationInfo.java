@@ -0,0 +1,10 @@
+package android.content.pm;
+
+import android.os.Bundle;
+
+/**
+ * Benchmark fake of the Android application info.
+ */
+public class ApplicationInfo {
+    public Bundle metaData = new Bundle();
+}
@@ -0,0 +1,17 @@
+package android.content.pm;
+
+/**
+ * Benchmark fake of the Android package manager.
+ */
+public class PackageManager {
+    public static final int GET_META_DATA = 128;
+
+    private final ApplicationInfo applicationInfo = new ApplicationInfo();
+
+    public ApplicationInfo getApplicationInfo(String packageName, int flags) throws NameNotFoundException {
+        return applicationInfo;
+    }
+
+    public static class NameNotFoundException extends Exception {
+    }
+}
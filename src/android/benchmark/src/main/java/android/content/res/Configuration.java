@@ -0,0 +1,13 @@
+package android.content.res;
+
+/**
+ * Benchmark fake of the Android configuration, a portrait phone.
+ */
+public class Configuration {
+    public static final int ORIENTATION_PORTRAIT = 1;
+    public static final int ORIENTATION_LANDSCAPE = 2;
+
+    public int orientation = ORIENTATION_PORTRAIT;
+    public int screenWidthDp = 360;
+    public int screenHeightDp = 640;
+}
@@ -0,0 +1,19 @@
+package android.content.res;
+
+import android.util.DisplayMetrics;
+
+/**
+ * Benchmark fake of the Android resources.
+ */
+public class Resources {
+    private final Configuration configuration = new Configuration();
+    private final DisplayMetrics displayMetrics = new DisplayMetrics();
+
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    public DisplayMetrics getDisplayMetrics() {
+        return displayMetrics;
+    }
+}
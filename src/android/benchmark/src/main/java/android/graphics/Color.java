@@ -0,0 +1,19 @@
+package android.graphics;
+
+/**
+ * Benchmark fake of the Android color helpers, parses "#RRGGBB" and "#AARRGGBB".
+ */
+public class Color {
+    public static final int TRANSPARENT = 0;
+
+    public static int parseColor(String colorString) {
+        if (colorString.length() != 7 && colorString.length() != 9) {
+            throw new IllegalArgumentException("Unknown color");
+        }
+        long color = Long.parseLong(colorString.substring(1), 16);
+        if (colorString.length() == 7) {
+            color |= 0xFF000000L;
+        }
+        return (int) color;
+    }
+}
@@ -0,0 +1,17 @@
+package android.graphics;
+
+/**
+ * Benchmark fake of the Android point.
+ */
+public class Point {
+    public int x;
+    public int y;
+
+    public Point() {
+    }
+
+    public Point(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+}
@@ -0,0 +1,22 @@
+package android.os;
+
+import java.util.HashMap;
+
+/**
+ * Benchmark fake of the Android bundle.
+ */
+public class Bundle {
+    private final HashMap<String, Object> values = new HashMap<>();
+
+    public boolean containsKey(String key) {
+        return values.containsKey(key);
+    }
+
+    public void putBoolean(String key, boolean value) {
+        values.put(key, value);
+    }
+
+    public void putString(String key, String value) {
+        values.put(key, value);
+    }
+}
@@ -0,0 +1,32 @@
+package android.os;
+
+/**
+ * Benchmark fake of the Android handler.
+ * <p>
+ * Delayed work (expiry checks, retries, timeouts) is outside the measured paths and is dropped.
+ */
+public class Handler {
+    private final Looper looper;
+
+    public Handler(Looper looper) {
+        this.looper = looper;
+    }
+
+    public final Looper getLooper() {
+        return looper;
+    }
+
+    public boolean post(Runnable r) {
+        return true;
+    }
+
+    public boolean postDelayed(Runnable r, long delayMillis) {
+        return true;
+    }
+
+    public void removeCallbacks(Runnable r) {
+    }
+
+    public void removeCallbacksAndMessages(Object token) {
+    }
+}
@@ -0,0 +1,24 @@
+package android.os;
+
+/**
+ * Benchmark fake of the Android handler thread, the thread itself has nothing to run.
+ */
+public class HandlerThread extends Thread {
+    private final Looper looper = new Looper();
+
+    public HandlerThread(String name) {
+        super(name);
+    }
+
+    public HandlerThread(String name, int priority) {
+        super(name);
+    }
+
+    public Looper getLooper() {
+        return looper;
+    }
+
+    public boolean quitSafely() {
+        return true;
+    }
+}
@@ -0,0 +1,9 @@
+package android.os;
+
+/**
+ * Benchmark fake of the Android looper.
+ */
+public final class Looper {
+    Looper() {
+    }
+}
@@ -0,0 +1,8 @@
+package android.os;
+
+/**
+ * Benchmark fake of the Android process helpers.
+ */
+public class Process {
+    public static final int THREAD_PRIORITY_BACKGROUND = 10;
+}
@@ -0,0 +1,14 @@
+package android.os;
+
+/**
+ * Benchmark fake of the Android clock, backed by System.nanoTime().
+ */
+public final class SystemClock {
+    public static long elapsedRealtime() {
+        return System.nanoTime() / 1000000;
+    }
+
+    public static long uptimeMillis() {
+        return System.nanoTime() / 1000000;
+    }
+}
@@ -0,0 +1,18 @@
+package android.os;
+
+/**
+ * Benchmark fake of the Android trace markers.
+ */
+public final class Trace {
+    public static void beginSection(String sectionName) {
+    }
+
+    public static void endSection() {
+    }
+
+    public static void beginAsyncSection(String methodName, int cookie) {
+    }
+
+    public static void endAsyncSection(String methodName, int cookie) {
+    }
+}
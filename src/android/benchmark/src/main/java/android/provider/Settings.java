@@ -0,0 +1,16 @@
+package android.provider;
+
+import android.content.ContentResolver;
+
+/**
+ * Benchmark fake of the Android settings.
+ */
+public class Settings {
+    public static class Secure {
+        public static final String ANDROID_ID = "android_id";
+
+        public static String getString(ContentResolver resolver, String name) {
+            return "0123456789abcdef";
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package android.util;
+
+/**
+ * Benchmark fake of the display metrics, matching the fixed density of the fake AdSize.
+ */
+public class DisplayMetrics {
+    public float density = 2;
+    public int widthPixels = 720;
+    public int heightPixels = 1280;
+}
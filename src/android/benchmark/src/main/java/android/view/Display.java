@@ -0,0 +1,13 @@
+package android.view;
+
+import android.graphics.Point;
+
+/**
+ * Benchmark fake of the Android display, a 720x1280 portrait screen.
+ */
+public class Display {
+    public void getSize(Point outSize) {
+        outSize.x = 720;
+        outSize.y = 1280;
+    }
+}
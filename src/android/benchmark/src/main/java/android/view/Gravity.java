@@ -0,0 +1,11 @@
+package android.view;
+
+/**
+ * Benchmark fake of the Android gravity constants.
+ */
+public class Gravity {
+    public static final int CENTER_HORIZONTAL = 1;
+    public static final int CENTER = 17;
+    public static final int TOP = 48;
+    public static final int BOTTOM = 80;
+}
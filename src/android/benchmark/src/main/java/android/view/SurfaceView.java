@@ -0,0 +1,12 @@
+package android.view;
+
+import android.content.Context;
+
+/**
+ * Benchmark fake of the surface view the Corona GL view derives from.
+ */
+public class SurfaceView extends View {
+    public SurfaceView(Context context) {
+        super(context);
+    }
+}
@@ -0,0 +1,57 @@
+package android.view;
+
+import android.content.Context;
+
+/**
+ * Benchmark fake of the Android view, keeps visibility, parent and layout params.
+ */
+public class View {
+    public static final int VISIBLE = 0;
+    public static final int INVISIBLE = 4;
+    public static final int GONE = 8;
+
+    private final Context context;
+    private int visibility = VISIBLE;
+    private ViewGroup.LayoutParams layoutParams;
+    ViewParent parent;
+
+    public View(Context context) {
+        this.context = context;
+    }
+
+    public Context getContext() {
+        return context;
+    }
+
+    public int getVisibility() {
+        return visibility;
+    }
+
+    public void setVisibility(int visibility) {
+        this.visibility = visibility;
+    }
+
+    public ViewParent getParent() {
+        return parent;
+    }
+
+    public ViewGroup.LayoutParams getLayoutParams() {
+        return layoutParams;
+    }
+
+    public void setLayoutParams(ViewGroup.LayoutParams params) {
+        layoutParams = params;
+    }
+
+    public void setBackgroundColor(int color) {
+    }
+
+    public void bringToFront() {
+    }
+
+    public void invalidate() {
+    }
+
+    public void requestLayout() {
+    }
+}
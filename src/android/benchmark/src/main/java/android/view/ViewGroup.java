@@ -0,0 +1,69 @@
+package android.view;
+
+import android.content.Context;
+
+import java.util.ArrayList;
+
+/**
+ * Benchmark fake of the Android view group.
+ */
+public abstract class ViewGroup extends View implements ViewParent {
+    private final ArrayList<View> children = new ArrayList<>();
+
+    public ViewGroup(Context context) {
+        super(context);
+    }
+
+    public int getChildCount() {
+        return children.size();
+    }
+
+    public View getChildAt(int index) {
+        return children.get(index);
+    }
+
+    public void addView(View child) {
+        addView(child, null);
+    }
+
+    public void addView(View child, LayoutParams params) {
+        if (child.parent != null) {
+            throw new IllegalStateException("The specified child already has a parent");
+        }
+        child.parent = this;
+        if (params != null) {
+            child.setLayoutParams(params);
+        }
+        children.add(child);
+    }
+
+    public void removeView(View child) {
+        if (children.remove(child)) {
+            child.parent = null;
+        }
+    }
+
+    public static class LayoutParams {
+        public static final int MATCH_PARENT = -1;
+        public static final int WRAP_CONTENT = -2;
+
+        public int width;
+        public int height;
+
+        public LayoutParams(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    public static class MarginLayoutParams extends LayoutParams {
+        public int leftMargin;
+        public int topMargin;
+        public int rightMargin;
+        public int bottomMargin;
+
+        public MarginLayoutParams(int width, int height) {
+            super(width, height);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package android.view;
+
+/**
+ * Benchmark fake of the Android view parent.
+ */
+public interface ViewParent {
+    void requestLayout();
+}
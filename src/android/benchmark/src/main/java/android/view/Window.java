@@ -0,0 +1,19 @@
+package android.view;
+
+import android.content.Context;
+import android.widget.FrameLayout;
+
+/**
+ * Benchmark fake of the Android window.
+ */
+public class Window {
+    private final FrameLayout decorView;
+
+    public Window(Context context) {
+        decorView = new FrameLayout(context);
+    }
+
+    public View getDecorView() {
+        return decorView;
+    }
+}
@@ -0,0 +1,8 @@
+package android.view;
+
+/**
+ * Benchmark fake of the Android window manager.
+ */
+public interface WindowManager {
+    Display getDefaultDisplay();
+}
@@ -0,0 +1,7 @@
+package androidx.annotation;
+
+/**
+ * Benchmark fake of the AndroidX nullness annotation.
+ */
+public @interface NonNull {
+}
@@ -0,0 +1,21 @@
+package com.ansca.corona;
+
+import android.app.Activity;
+import android.graphics.Point;
+import android.widget.FrameLayout;
+
+/**
+ * Benchmark fake of the Corona activity.
+ */
+public class CoronaActivity extends Activity {
+    private final FrameLayout overlayView = new FrameLayout(this);
+
+    public FrameLayout getOverlayView() {
+        return overlayView;
+    }
+
+    // content scaled by 2 and not offset
+    public Point convertCoronaPointToAndroidPoint(int x, int y) {
+        return new Point(x * 2, y * 2);
+    }
+}
@@ -0,0 +1,25 @@
+package com.ansca.corona;
+
+import android.content.Context;
+
+/**
+ * Benchmark fake of the Corona environment, the benchmark installs the activity.
+ */
+public final class CoronaEnvironment {
+    private static CoronaActivity coronaActivity;
+
+    public static void setCoronaActivity(CoronaActivity activity) {
+        coronaActivity = activity;
+    }
+
+    public static CoronaActivity getCoronaActivity() {
+        return coronaActivity;
+    }
+
+    public static Context getApplicationContext() {
+        return coronaActivity;
+    }
+
+    public static void addRuntimeListener(CoronaRuntimeListener listener) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.ansca.corona;
+
+import com.naef.jnlua.LuaState;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark fake of the Corona Lua helpers.
+ * <p>
+ * Every Lua value counts as a listener and dispatched events are counted and dropped.
+ */
+public final class CoronaLua {
+    public static final int REFNIL = -1;
+    public static final int NOREF = -2;
+
+    private static final AtomicLong dispatchedEvents = new AtomicLong();
+
+    public static long getDispatchedEventCount() {
+        return dispatchedEvents.get();
+    }
+
+    public static boolean isListener(LuaState L, int index, String eventName) {
+        return !L.isNoneOrNil(index);
+    }
+
+    public static int newRef(LuaState L, int index) {
+        return 1;
+    }
+
+    public static void deleteRef(LuaState L, int ref) {
+    }
+
+    public static void newEvent(LuaState L, String eventName) {
+        L.newTable();
+        L.pushString(eventName);
+        L.setField(-2, "name");
+    }
+
+    // pops the event table pushed by newEvent()
+    public static void dispatchEvent(LuaState L, int listenerRef, int nresults) throws Exception {
+        if (!(L.get(-1) instanceof Map)) {
+            throw new IllegalStateException("event table expected");
+        }
+        L.pop(1);
+        dispatchedEvents.incrementAndGet();
+    }
+}
@@ -0,0 +1,12 @@
+package com.ansca.corona;
+
+/**
+ * Benchmark fake of the Corona event key constants.
+ */
+public class CoronaLuaEvent {
+    public static final String NAME_KEY = "name";
+    public static final String PROVIDER_KEY = "provider";
+    public static final String RESPONSE_KEY = "response";
+    public static final String ISERROR_KEY = "isError";
+    public static final String ERRORTYPE_KEY = "errorType";
+}
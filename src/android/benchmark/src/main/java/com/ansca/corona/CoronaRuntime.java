@@ -0,0 +1,18 @@
+package com.ansca.corona;
+
+import com.naef.jnlua.LuaState;
+
+/**
+ * Benchmark fake of the Corona runtime, a holder for the Lua state.
+ */
+public class CoronaRuntime {
+    private final LuaState luaState;
+
+    public CoronaRuntime(LuaState luaState) {
+        this.luaState = luaState;
+    }
+
+    public LuaState getLuaState() {
+        return luaState;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ansca.corona;
+
+/**
+ * Benchmark fake of the Corona runtime listener.
+ */
+public interface CoronaRuntimeListener {
+    void onLoaded(CoronaRuntime runtime);
+
+    void onStarted(CoronaRuntime runtime);
+
+    void onSuspended(CoronaRuntime runtime);
+
+    void onResumed(CoronaRuntime runtime);
+
+    void onExiting(CoronaRuntime runtime);
+}
@@ -0,0 +1,8 @@
+package com.ansca.corona;
+
+/**
+ * Benchmark fake of the Corona runtime task.
+ */
+public interface CoronaRuntimeTask {
+    void executeUsing(CoronaRuntime runtime);
+}
@@ -0,0 +1,27 @@
+package com.ansca.corona;
+
+/**
+ * Benchmark fake of the Corona runtime task dispatcher.
+ * <p>
+ * Runs each task right away on the calling thread instead of on the next Corona frame,
+ * so event building and delivery are measured together with the code that sent the event.
+ */
+public class CoronaRuntimeTaskDispatcher {
+    private final CoronaRuntime runtime;
+
+    public CoronaRuntimeTaskDispatcher(CoronaRuntime runtime) {
+        this.runtime = runtime;
+    }
+
+    public boolean isRuntimeAvailable() {
+        return true;
+    }
+
+    public boolean isRuntimeUnavailable() {
+        return false;
+    }
+
+    public void send(CoronaRuntimeTask task) {
+        task.executeUsing(runtime);
+    }
+}
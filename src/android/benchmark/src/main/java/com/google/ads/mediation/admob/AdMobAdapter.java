@@ -0,0 +1,7 @@
+package com.google.ads.mediation.admob;
+
+/**
+ * Benchmark fake of the AdMob mediation adapter, only used as a class key.
+ */
+public class AdMobAdapter {
+}
@@ -0,0 +1,33 @@
+package com.google.android.gms.ads;
+
+/**
+ * Benchmark fake of the SDK error.
+ */
+public class AdError {
+    private final int code;
+    private final String message;
+    private final String domain;
+
+    public AdError(int code, String message, String domain) {
+        this.code = code;
+        this.message = message;
+        this.domain = domain;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    @Override
+    public String toString() {
+        return "{ \"Code\": " + code + ", \"Message\": \"" + message + "\", \"Domain\": \"" + domain + "\" }";
+    }
+}
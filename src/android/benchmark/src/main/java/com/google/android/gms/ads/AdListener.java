@@ -0,0 +1,24 @@
+package com.google.android.gms.ads;
+
+/**
+ * Benchmark fake of the SDK banner listener.
+ */
+public abstract class AdListener {
+    public void onAdClicked() {
+    }
+
+    public void onAdClosed() {
+    }
+
+    public void onAdFailedToLoad(LoadAdError adError) {
+    }
+
+    public void onAdImpression() {
+    }
+
+    public void onAdLoaded() {
+    }
+
+    public void onAdOpened() {
+    }
+}
@@ -0,0 +1,12 @@
+package com.google.android.gms.ads;
+
+/**
+ * Benchmark fake of the SDK load callback.
+ */
+public abstract class AdLoadCallback<AdT> {
+    public void onAdLoaded(AdT ad) {
+    }
+
+    public void onAdFailedToLoad(LoadAdError adError) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.google.android.gms.ads;
+
+import android.os.Bundle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark fake of the SDK ad request.
+ */
+public class AdRequest {
+    public static final String DEVICE_ID_EMULATOR = "B3EEABB8EE11C2BE770B684D95219ECB";
+
+    public static final int ERROR_CODE_INTERNAL_ERROR = 0;
+    public static final int ERROR_CODE_INVALID_REQUEST = 1;
+    public static final int ERROR_CODE_NETWORK_ERROR = 2;
+    public static final int ERROR_CODE_NO_FILL = 3;
+    public static final int ERROR_CODE_APP_ID_MISSING = 8;
+    public static final int ERROR_CODE_MEDIATION_NO_FILL = 9;
+    public static final int ERROR_CODE_REQUEST_ID_MISMATCH = 10;
+    public static final int ERROR_CODE_INVALID_AD_STRING = 11;
+
+    private final List<String> keywords;
+
+    AdRequest(Builder builder) {
+        keywords = builder.keywords;
+    }
+
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    public static class Builder {
+        private final List<String> keywords = new ArrayList<>();
+
+        public Builder addKeyword(String keyword) {
+            keywords.add(keyword);
+            return this;
+        }
+
+        public Builder addNetworkExtrasBundle(Class<?> adapterClass, Bundle networkExtras) {
+            return this;
+        }
+
+        public AdRequest build() {
+            return new AdRequest(this);
+        }
+    }
+}
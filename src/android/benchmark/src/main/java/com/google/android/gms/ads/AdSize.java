@@ -0,0 +1,65 @@
+package com.google.android.gms.ads;
+
+import android.content.Context;
+
+/**
+ * Benchmark fake of the SDK ad size, densities are fixed at 2.
+ */
+public final class AdSize {
+    public static final int FULL_WIDTH = -1;
+    public static final AdSize BANNER = new AdSize(320, 50);
+
+    private final int width;
+    private final int height;
+
+    public AdSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWidthInPixels(Context context) {
+        return width * 2;
+    }
+
+    public int getHeightInPixels(Context context) {
+        return height * 2;
+    }
+
+    public static AdSize getCurrentOrientationAnchoredAdaptiveBannerAdSize(Context context, int width) {
+        return new AdSize(360, 56);
+    }
+
+    public static AdSize getPortraitAnchoredAdaptiveBannerAdSize(Context context, int width) {
+        return new AdSize(width, 56);
+    }
+
+    public static AdSize getLandscapeAnchoredAdaptiveBannerAdSize(Context context, int width) {
+        return new AdSize(width, 50);
+    }
+
+    public static AdSize getPortraitInlineAdaptiveBannerAdSize(Context context, int width) {
+        return new AdSize(width, 250);
+    }
+
+    public static AdSize getLandscapeInlineAdaptiveBannerAdSize(Context context, int width) {
+        return new AdSize(width, 90);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof AdSize && ((AdSize) other).width == width && ((AdSize) other).height == height;
+    }
+
+    @Override
+    public int hashCode() {
+        return width * 31 + height;
+    }
+}
@@ -0,0 +1,12 @@
+package com.google.android.gms.ads;
+
+import android.content.Context;
+
+/**
+ * Benchmark fake of the SDK banner view.
+ */
+public final class AdView extends BaseAdView {
+    public AdView(Context context) {
+        super(context);
+    }
+}
@@ -0,0 +1,55 @@
+package com.google.android.gms.ads;
+
+import android.content.Context;
+import android.view.ViewGroup;
+
+/**
+ * Benchmark fake of the SDK banner view, loadAd() completes through {@link FakeAdNetwork}.
+ */
+public abstract class BaseAdView extends ViewGroup {
+    private String adUnitId;
+    private AdSize adSize;
+    private AdListener adListener;
+
+    public BaseAdView(Context context) {
+        super(context);
+    }
+
+    public String getAdUnitId() {
+        return adUnitId;
+    }
+
+    public void setAdUnitId(String adUnitId) {
+        this.adUnitId = adUnitId;
+    }
+
+    public AdSize getAdSize() {
+        return adSize;
+    }
+
+    public void setAdSize(AdSize adSize) {
+        this.adSize = adSize;
+    }
+
+    public AdListener getAdListener() {
+        return adListener;
+    }
+
+    public void setAdListener(AdListener adListener) {
+        this.adListener = adListener;
+    }
+
+    public void loadAd(AdRequest adRequest) {
+        FakeAdNetwork.complete(adListener);
+    }
+
+    public void pause() {
+    }
+
+    public void resume() {
+    }
+
+    public void destroy() {
+        adListener = null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.google.android.gms.ads;
+
+/**
+ * Benchmark-only switchboard of the fake ad SDK.
+ * <p>
+ * Every ad request completes right away on the calling thread, either with a fill or with a no-fill error.
+ */
+public final class FakeAdNetwork {
+    private static volatile boolean fill = true;
+
+    public static void setFill(boolean fill) {
+        FakeAdNetwork.fill = fill;
+    }
+
+    public static <AdT> void complete(AdLoadCallback<AdT> callback, AdT ad) {
+        if (fill) {
+            callback.onAdLoaded(ad);
+        } else {
+            callback.onAdFailedToLoad(noFill());
+        }
+    }
+
+    static void complete(AdListener listener) {
+        if (listener == null) {
+            return;
+        }
+        if (fill) {
+            listener.onAdLoaded();
+        } else {
+            listener.onAdFailedToLoad(noFill());
+        }
+    }
+
+    private static LoadAdError noFill() {
+        return new LoadAdError(AdRequest.ERROR_CODE_NO_FILL, "No fill.", "com.google.android.gms.ads");
+    }
+}
@@ -0,0 +1,21 @@
+package com.google.android.gms.ads;
+
+/**
+ * Benchmark fake of the SDK fullscreen content callback.
+ */
+public abstract class FullScreenContentCallback {
+    public void onAdClicked() {
+    }
+
+    public void onAdDismissedFullScreenContent() {
+    }
+
+    public void onAdFailedToShowFullScreenContent(AdError adError) {
+    }
+
+    public void onAdImpression() {
+    }
+
+    public void onAdShowedFullScreenContent() {
+    }
+}
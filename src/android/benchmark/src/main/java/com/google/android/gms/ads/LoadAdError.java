@@ -0,0 +1,10 @@
+package com.google.android.gms.ads;
+
+/**
+ * Benchmark fake of the SDK load error.
+ */
+public final class LoadAdError extends AdError {
+    public LoadAdError(int code, String message, String domain) {
+        super(code, message, domain);
+    }
+}
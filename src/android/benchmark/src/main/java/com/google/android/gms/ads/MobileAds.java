@@ -0,0 +1,52 @@
+package com.google.android.gms.ads;
+
+import android.content.Context;
+
+import com.google.android.gms.ads.initialization.AdapterStatus;
+import com.google.android.gms.ads.initialization.InitializationStatus;
+import com.google.android.gms.ads.initialization.OnInitializationCompleteListener;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Benchmark fake of the SDK entry point, initialization completes right away without adapters.
+ */
+public class MobileAds {
+    private static final InitializationStatus NO_ADAPTERS = new InitializationStatus() {
+        @Override
+        public Map<String, AdapterStatus> getAdapterStatusMap() {
+            return Collections.emptyMap();
+        }
+    };
+
+    private static RequestConfiguration requestConfiguration = new RequestConfiguration();
+    private static volatile InitializationStatus initializationStatus;
+
+    public static VersionInfo getVersion() {
+        return new VersionInfo();
+    }
+
+    public static void initialize(Context context, OnInitializationCompleteListener listener) {
+        initializationStatus = NO_ADAPTERS;
+        listener.onInitializationComplete(NO_ADAPTERS);
+    }
+
+    public static InitializationStatus getInitializationStatus() {
+        return initializationStatus;
+    }
+
+    public static void disableMediationAdapterInitialization(Context context) {
+    }
+
+    public static void setAppVolume(float volume) {
+    }
+
+    public static RequestConfiguration getRequestConfiguration() {
+        return requestConfiguration;
+    }
+
+    public static void setRequestConfiguration(RequestConfiguration configuration) {
+        requestConfiguration = configuration;
+    }
+}
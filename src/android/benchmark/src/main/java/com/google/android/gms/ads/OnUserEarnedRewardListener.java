@@ -0,0 +1,10 @@
+package com.google.android.gms.ads;
+
+import com.google.android.gms.ads.rewarded.RewardItem;
+
+/**
+ * Benchmark fake of the SDK reward listener.
+ */
+public interface OnUserEarnedRewardListener {
+    void onUserEarnedReward(RewardItem rewardItem);
+}
@@ -0,0 +1,37 @@
+package com.google.android.gms.ads;
+
+import java.util.List;
+
+/**
+ * Benchmark fake of the SDK request configuration.
+ */
+public class RequestConfiguration {
+    public static final String MAX_AD_CONTENT_RATING_G = "G";
+    public static final String MAX_AD_CONTENT_RATING_PG = "PG";
+    public static final String MAX_AD_CONTENT_RATING_T = "T";
+    public static final String MAX_AD_CONTENT_RATING_MA = "MA";
+    public static final int TAG_FOR_CHILD_DIRECTED_TREATMENT_FALSE = 0;
+    public static final int TAG_FOR_CHILD_DIRECTED_TREATMENT_TRUE = 1;
+
+    public Builder toBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        public Builder setTestDeviceIds(List<String> testDeviceIds) {
+            return this;
+        }
+
+        public Builder setTagForChildDirectedTreatment(int tag) {
+            return this;
+        }
+
+        public Builder setMaxAdContentRating(String rating) {
+            return this;
+        }
+
+        public RequestConfiguration build() {
+            return new RequestConfiguration();
+        }
+    }
+}
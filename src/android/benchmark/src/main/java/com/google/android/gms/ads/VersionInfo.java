@@ -0,0 +1,11 @@
+package com.google.android.gms.ads;
+
+/**
+ * Benchmark fake of the SDK version info.
+ */
+public class VersionInfo {
+    @Override
+    public String toString() {
+        return "0.0.0";
+    }
+}
@@ -0,0 +1,46 @@
+package com.google.android.gms.ads.appopen;
+
+import android.app.Activity;
+import android.content.Context;
+
+import com.google.android.gms.ads.AdLoadCallback;
+import com.google.android.gms.ads.AdRequest;
+import com.google.android.gms.ads.FakeAdNetwork;
+import com.google.android.gms.ads.FullScreenContentCallback;
+
+/**
+ * Benchmark fake of the SDK AppOpenAd, load() completes through {@link FakeAdNetwork}
+ * and show() runs the whole content callback sequence right away.
+ */
+public class AppOpenAd {
+    private final String adUnitId;
+    private FullScreenContentCallback fullScreenContentCallback;
+
+    AppOpenAd(String adUnitId) {
+        this.adUnitId = adUnitId;
+    }
+
+    public static void load(Context context, String adUnitId, AdRequest adRequest, AppOpenAdLoadCallback loadCallback) {
+        FakeAdNetwork.complete(loadCallback, new AppOpenAd(adUnitId));
+    }
+
+    public String getAdUnitId() {
+        return adUnitId;
+    }
+
+    public void setFullScreenContentCallback(FullScreenContentCallback callback) {
+        fullScreenContentCallback = callback;
+    }
+
+    public void show(Activity activity) {
+        FullScreenContentCallback callback = fullScreenContentCallback;
+        if (callback == null) {
+            return;
+        }
+        callback.onAdShowedFullScreenContent();
+        callback.onAdDismissedFullScreenContent();
+    }
+
+    public abstract static class AppOpenAdLoadCallback extends AdLoadCallback<AppOpenAd> {
+    }
+}
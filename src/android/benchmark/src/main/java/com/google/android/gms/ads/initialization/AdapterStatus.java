@@ -0,0 +1,16 @@
+package com.google.android.gms.ads.initialization;
+
+/**
+ * Benchmark fake of the SDK adapter status.
+ */
+public interface AdapterStatus {
+    State getInitializationState();
+
+    int getLatency();
+
+    String getDescription();
+
+    enum State {
+        NOT_READY, READY
+    }
+}
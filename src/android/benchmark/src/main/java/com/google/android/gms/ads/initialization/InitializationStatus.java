@@ -0,0 +1,10 @@
+package com.google.android.gms.ads.initialization;
+
+import java.util.Map;
+
+/**
+ * Benchmark fake of the SDK initialization status.
+ */
+public interface InitializationStatus {
+    Map<String, AdapterStatus> getAdapterStatusMap();
+}
@@ -0,0 +1,8 @@
+package com.google.android.gms.ads.initialization;
+
+/**
+ * Benchmark fake of the SDK initialization listener.
+ */
+public interface OnInitializationCompleteListener {
+    void onInitializationComplete(InitializationStatus initializationStatus);
+}
@@ -0,0 +1,42 @@
+package com.google.android.gms.ads.interstitial;
+
+import android.app.Activity;
+import android.content.Context;
+
+import com.google.android.gms.ads.AdRequest;
+import com.google.android.gms.ads.FakeAdNetwork;
+import com.google.android.gms.ads.FullScreenContentCallback;
+
+/**
+ * Benchmark fake of the SDK InterstitialAd, load() completes through {@link FakeAdNetwork}
+ * and show() runs the whole content callback sequence right away.
+ */
+public class InterstitialAd {
+    private final String adUnitId;
+    private FullScreenContentCallback fullScreenContentCallback;
+
+    InterstitialAd(String adUnitId) {
+        this.adUnitId = adUnitId;
+    }
+
+    public static void load(Context context, String adUnitId, AdRequest adRequest, InterstitialAdLoadCallback loadCallback) {
+        FakeAdNetwork.complete(loadCallback, new InterstitialAd(adUnitId));
+    }
+
+    public String getAdUnitId() {
+        return adUnitId;
+    }
+
+    public void setFullScreenContentCallback(FullScreenContentCallback callback) {
+        fullScreenContentCallback = callback;
+    }
+
+    public void show(Activity activity) {
+        FullScreenContentCallback callback = fullScreenContentCallback;
+        if (callback == null) {
+            return;
+        }
+        callback.onAdShowedFullScreenContent();
+        callback.onAdDismissedFullScreenContent();
+    }
+}
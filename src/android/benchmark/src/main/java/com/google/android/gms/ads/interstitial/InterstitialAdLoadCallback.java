@@ -0,0 +1,9 @@
+package com.google.android.gms.ads.interstitial;
+
+import com.google.android.gms.ads.AdLoadCallback;
+
+/**
+ * Benchmark fake of the SDK InterstitialAd load callback.
+ */
+public abstract class InterstitialAdLoadCallback extends AdLoadCallback<InterstitialAd> {
+}
@@ -0,0 +1,10 @@
+package com.google.android.gms.ads.rewarded;
+
+/**
+ * Benchmark fake of the SDK reward item.
+ */
+public interface RewardItem {
+    int getAmount();
+
+    String getType();
+}
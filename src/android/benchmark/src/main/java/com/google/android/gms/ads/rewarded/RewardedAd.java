@@ -0,0 +1,56 @@
+package com.google.android.gms.ads.rewarded;
+
+import android.app.Activity;
+import android.content.Context;
+
+import com.google.android.gms.ads.AdRequest;
+import com.google.android.gms.ads.FakeAdNetwork;
+import com.google.android.gms.ads.FullScreenContentCallback;
+import com.google.android.gms.ads.OnUserEarnedRewardListener;
+
+/**
+ * Benchmark fake of the SDK RewardedAd, load() completes through {@link FakeAdNetwork}
+ * and show() runs the whole content callback sequence right away.
+ */
+public class RewardedAd {
+    private static final RewardItem REWARD = new RewardItem() {
+        @Override
+        public int getAmount() {
+            return 10;
+        }
+
+        @Override
+        public String getType() {
+            return "coins";
+        }
+    };
+
+    private final String adUnitId;
+    private FullScreenContentCallback fullScreenContentCallback;
+
+    RewardedAd(String adUnitId) {
+        this.adUnitId = adUnitId;
+    }
+
+    public static void load(Context context, String adUnitId, AdRequest adRequest, RewardedAdLoadCallback loadCallback) {
+        FakeAdNetwork.complete(loadCallback, new RewardedAd(adUnitId));
+    }
+
+    public String getAdUnitId() {
+        return adUnitId;
+    }
+
+    public void setFullScreenContentCallback(FullScreenContentCallback callback) {
+        fullScreenContentCallback = callback;
+    }
+
+    public void show(Activity activity, OnUserEarnedRewardListener rewardListener) {
+        FullScreenContentCallback callback = fullScreenContentCallback;
+        if (callback == null) {
+            return;
+        }
+        callback.onAdShowedFullScreenContent();
+        rewardListener.onUserEarnedReward(REWARD);
+        callback.onAdDismissedFullScreenContent();
+    }
+}
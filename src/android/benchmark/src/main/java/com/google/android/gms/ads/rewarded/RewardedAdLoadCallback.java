@@ -0,0 +1,9 @@
+package com.google.android.gms.ads.rewarded;
+
+import com.google.android.gms.ads.AdLoadCallback;
+
+/**
+ * Benchmark fake of the SDK RewardedAd load callback.
+ */
+public abstract class RewardedAdLoadCallback extends AdLoadCallback<RewardedAd> {
+}
@@ -0,0 +1,9 @@
+package com.google.android.gms.ads.rewardedinterstitial;
+
+import com.google.android.gms.ads.AdLoadCallback;
+
+/**
+ * Benchmark fake of the SDK RewardedInterstitialAd load callback.
+ */
+public abstract class RewardedInterstitialAdLoadCallback extends AdLoadCallback<RewardedInterstitialAd> {
+}
@@ -0,0 +1,31 @@
+package com.google.android.ump;
+
+import android.content.Context;
+
+/**
+ * Benchmark fake of the UMP debug settings.
+ */
+public class ConsentDebugSettings {
+    public static class DebugGeography {
+        public static final int DEBUG_GEOGRAPHY_DISABLED = 0;
+        public static final int DEBUG_GEOGRAPHY_EEA = 1;
+        public static final int DEBUG_GEOGRAPHY_NOT_EEA = 2;
+    }
+
+    public static class Builder {
+        public Builder(Context context) {
+        }
+
+        public Builder setDebugGeography(int debugGeography) {
+            return this;
+        }
+
+        public Builder addTestDeviceHashedId(String hashedId) {
+            return this;
+        }
+
+        public ConsentDebugSettings build() {
+            return new ConsentDebugSettings();
+        }
+    }
+}
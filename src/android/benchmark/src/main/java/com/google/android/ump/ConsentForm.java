@@ -0,0 +1,14 @@
+package com.google.android.ump;
+
+import android.app.Activity;
+
+/**
+ * Benchmark fake of the UMP consent form.
+ */
+public interface ConsentForm {
+    void show(Activity activity, OnConsentFormDismissedListener listener);
+
+    interface OnConsentFormDismissedListener {
+        void onConsentFormDismissed(FormError formError);
+    }
+}
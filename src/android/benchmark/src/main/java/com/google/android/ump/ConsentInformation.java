@@ -0,0 +1,29 @@
+package com.google.android.ump;
+
+import android.app.Activity;
+
+/**
+ * Benchmark fake of the UMP consent information.
+ */
+public interface ConsentInformation {
+    void requestConsentInfoUpdate(Activity activity, ConsentRequestParameters params, OnConsentInfoUpdateSuccessListener onSuccess, OnConsentInfoUpdateFailureListener onFailure);
+
+    boolean isConsentFormAvailable();
+
+    int getConsentStatus();
+
+    interface OnConsentInfoUpdateSuccessListener {
+        void onConsentInfoUpdateSuccess();
+    }
+
+    interface OnConsentInfoUpdateFailureListener {
+        void onConsentInfoUpdateFailure(FormError formError);
+    }
+
+    class ConsentStatus {
+        public static final int UNKNOWN = 0;
+        public static final int NOT_REQUIRED = 1;
+        public static final int REQUIRED = 2;
+        public static final int OBTAINED = 3;
+    }
+}
@@ -0,0 +1,20 @@
+package com.google.android.ump;
+
+/**
+ * Benchmark fake of the UMP request parameters.
+ */
+public class ConsentRequestParameters {
+    public static class Builder {
+        public Builder setTagForUnderAgeOfConsent(boolean underAge) {
+            return this;
+        }
+
+        public Builder setConsentDebugSettings(ConsentDebugSettings debugSettings) {
+            return this;
+        }
+
+        public ConsentRequestParameters build() {
+            return new ConsentRequestParameters();
+        }
+    }
+}
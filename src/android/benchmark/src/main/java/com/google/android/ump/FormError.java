@@ -0,0 +1,16 @@
+package com.google.android.ump;
+
+/**
+ * Benchmark fake of the UMP form error.
+ */
+public class FormError {
+    private final String message;
+
+    public FormError(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
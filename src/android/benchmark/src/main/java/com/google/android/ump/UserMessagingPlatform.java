@@ -0,0 +1,42 @@
+package com.google.android.ump;
+
+import android.app.Activity;
+import android.content.Context;
+
+/**
+ * Benchmark fake of the UMP entry point, consent is never required.
+ */
+public class UserMessagingPlatform {
+    private static final ConsentInformation consentInformation = new ConsentInformation() {
+        @Override
+        public void requestConsentInfoUpdate(Activity activity, ConsentRequestParameters params, OnConsentInfoUpdateSuccessListener onSuccess, OnConsentInfoUpdateFailureListener onFailure) {
+            onSuccess.onConsentInfoUpdateSuccess();
+        }
+
+        @Override
+        public boolean isConsentFormAvailable() {
+            return false;
+        }
+
+        @Override
+        public int getConsentStatus() {
+            return ConsentStatus.NOT_REQUIRED;
+        }
+    };
+
+    public static ConsentInformation getConsentInformation(Context context) {
+        return consentInformation;
+    }
+
+    public static void loadConsentForm(Context context, OnConsentFormLoadSuccessListener onSuccess, OnConsentFormLoadFailureListener onFailure) {
+        onFailure.onConsentFormLoadFailure(new FormError("No consent form available"));
+    }
+
+    public interface OnConsentFormLoadSuccessListener {
+        void onConsentFormLoadSuccess(ConsentForm consentForm);
+    }
+
+    public interface OnConsentFormLoadFailureListener {
+        void onConsentFormLoadFailure(FormError formError);
+    }
+}
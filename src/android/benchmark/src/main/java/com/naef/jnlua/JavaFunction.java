@@ -0,0 +1,8 @@
+package com.naef.jnlua;
+
+/**
+ * Benchmark fake of the JNLua Java function interface.
+ */
+public interface JavaFunction {
+    int invoke(LuaState luaState);
+}
@@ -0,0 +1,274 @@
+package com.naef.jnlua;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Benchmark fake of the JNLua state.
+ * <p>
+ * Keeps a real value stack and real tables so the plugin's option parsing and event building run unchanged.
+ * Tables are {@link LinkedHashMap}s, numbers are {@link Double}s and functions are {@link JavaFunction}s.
+ */
+public class LuaState {
+    private final ArrayList<Object> stack = new ArrayList<>(64);
+    private final Map<String, Object> globals = new HashMap<>();
+    private final Map<String, NamedJavaFunction> registered = new HashMap<>();
+
+    // --------------------------------------------------------------------------
+    // benchmark helpers
+
+    /**
+     * Replaces the whole stack with args, like a fresh Lua call frame.
+     */
+    public void setArgs(Object... args) {
+        stack.clear();
+        for (Object arg : args) {
+            stack.add(normalize(arg));
+        }
+    }
+
+    public void clear() {
+        stack.clear();
+    }
+
+    public NamedJavaFunction getFunction(String name) {
+        return registered.get(name);
+    }
+
+    public Object get(int index) {
+        int i = absIndex(index);
+        return i >= 1 && i <= stack.size() ? stack.get(i - 1) : null;
+    }
+
+    /**
+     * Builds a Lua table from key/value pairs, Java arrays and lists become Lua arrays.
+     */
+    public static Map<Object, Object> table(Object... keyValues) {
+        LinkedHashMap<Object, Object> table = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            table.put(normalize(keyValues[i]), normalize(keyValues[i + 1]));
+        }
+        return table;
+    }
+
+    public static Map<Object, Object> array(Object... values) {
+        LinkedHashMap<Object, Object> table = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            table.put((double) (i + 1), normalize(values[i]));
+        }
+        return table;
+    }
+
+    private static Object normalize(Object value) {
+        if (value instanceof Number && !(value instanceof Double)) {
+            return ((Number) value).doubleValue();
+        }
+        return value;
+    }
+
+    private int absIndex(int index) {
+        return index < 0 ? stack.size() + index + 1 : index;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, Object> tableAt(int index) {
+        Object value = get(index);
+        if (!(value instanceof Map)) {
+            throw new IllegalStateException("table expected at " + index + ", got " + typeName(index));
+        }
+        return (Map<Object, Object>) value;
+    }
+
+    private Object pop() {
+        return stack.remove(stack.size() - 1);
+    }
+
+    // --------------------------------------------------------------------------
+    // stack
+
+    public int getTop() {
+        return stack.size();
+    }
+
+    public void pop(int n) {
+        for (int i = 0; i < n; i++) {
+            pop();
+        }
+    }
+
+    public void pushValue(int index) {
+        stack.add(get(index));
+    }
+
+    public void pushNil() {
+        stack.add(null);
+    }
+
+    public void pushBoolean(boolean b) {
+        stack.add(b);
+    }
+
+    public void pushNumber(double d) {
+        stack.add(d);
+    }
+
+    public void pushInteger(int i) {
+        stack.add((double) i);
+    }
+
+    public void pushString(String s) {
+        stack.add(s);
+    }
+
+    // --------------------------------------------------------------------------
+    // type checks and conversions
+
+    public LuaType type(int index) {
+        int i = absIndex(index);
+        if (i < 1 || i > stack.size()) {
+            return null;
+        }
+        Object value = stack.get(i - 1);
+        if (value == null) {
+            return LuaType.NIL;
+        } else if (value instanceof Boolean) {
+            return LuaType.BOOLEAN;
+        } else if (value instanceof Double) {
+            return LuaType.NUMBER;
+        } else if (value instanceof String) {
+            return LuaType.STRING;
+        } else if (value instanceof Map) {
+            return LuaType.TABLE;
+        } else if (value instanceof JavaFunction) {
+            return LuaType.FUNCTION;
+        }
+        return LuaType.USERDATA;
+    }
+
+    public String typeName(int index) {
+        LuaType type = type(index);
+        return type == null ? "no value" : type.name().toLowerCase();
+    }
+
+    public boolean isNoneOrNil(int index) {
+        return get(index) == null;
+    }
+
+    public boolean isTable(int index) {
+        return type(index) == LuaType.TABLE;
+    }
+
+    public boolean isString(int index) {
+        LuaType type = type(index);
+        return type == LuaType.STRING || type == LuaType.NUMBER;
+    }
+
+    public boolean isNumber(int index) {
+        return type(index) == LuaType.NUMBER;
+    }
+
+    public boolean toBoolean(int index) {
+        Object value = get(index);
+        return value != null && !Boolean.FALSE.equals(value);
+    }
+
+    public double toNumber(int index) {
+        Object value = get(index);
+        return value instanceof Double ? (Double) value : 0;
+    }
+
+    public int toInteger(int index) {
+        return (int) toNumber(index);
+    }
+
+    public String toString(int index) {
+        Object value = get(index);
+        if (value instanceof String) {
+            return (String) value;
+        } else if (value instanceof Double) {
+            double d = (Double) value;
+            return d == Math.rint(d) ? Long.toString((long) d) : Double.toString(d);
+        }
+        return null;
+    }
+
+    // --------------------------------------------------------------------------
+    // tables
+
+    public void newTable() {
+        stack.add(new LinkedHashMap<Object, Object>());
+    }
+
+    public void newTable(int arrayCount, int recordCount) {
+        stack.add(new LinkedHashMap<Object, Object>(Math.max(4, (arrayCount + recordCount) * 2)));
+    }
+
+    public void getField(int index, String key) {
+        stack.add(tableAt(index).get(key));
+    }
+
+    public void setField(int index, String key) {
+        Map<Object, Object> table = tableAt(index);
+        table.put(key, pop());
+    }
+
+    public void rawGet(int index, int key) {
+        stack.add(tableAt(index).get((double) key));
+    }
+
+    public void rawSet(int index, int key) {
+        Map<Object, Object> table = tableAt(index);
+        table.put((double) key, pop());
+    }
+
+    public void rawSet(int index) {
+        Map<Object, Object> table = tableAt(index);
+        Object value = pop();
+        Object key = pop();
+        table.put(key, value);
+    }
+
+    public int length(int index) {
+        Map<Object, Object> table = tableAt(index);
+        int n = 0;
+        while (table.containsKey((double) (n + 1))) {
+            n++;
+        }
+        return n;
+    }
+
+    // pops a key and pushes the next key/value pair, returns false at the end of the table
+    public boolean next(int index) {
+        Map<Object, Object> table = tableAt(index);
+        Object key = pop();
+        boolean found = key == null;
+        for (Map.Entry<Object, Object> entry : table.entrySet()) {
+            if (found) {
+                stack.add(entry.getKey());
+                stack.add(entry.getValue());
+                return true;
+            }
+            found = entry.getKey().equals(key);
+        }
+        return false;
+    }
+
+    // --------------------------------------------------------------------------
+    // globals and libraries
+
+    public void getGlobal(String name) {
+        stack.add(globals.get(name));
+    }
+
+    public void register(String moduleName, NamedJavaFunction[] functions) {
+        LinkedHashMap<Object, Object> module = new LinkedHashMap<>();
+        for (NamedJavaFunction function : functions) {
+            registered.put(function.getName(), function);
+            module.put(function.getName(), function);
+        }
+        globals.put(moduleName, module);
+        stack.add(module);
+    }
+}
@@ -0,0 +1,8 @@
+package com.naef.jnlua;
+
+/**
+ * Benchmark fake of the JNLua value types.
+ */
+public enum LuaType {
+    NIL, BOOLEAN, LIGHTUSERDATA, NUMBER, STRING, TABLE, FUNCTION, USERDATA, THREAD
+}
@@ -0,0 +1,8 @@
+package com.naef.jnlua;
+
+/**
+ * Benchmark fake of the JNLua named Java function interface.
+ */
+public interface NamedJavaFunction extends JavaFunction {
+    String getName();
+}
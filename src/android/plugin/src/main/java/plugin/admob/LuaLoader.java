@@ -9,18 +9,29 @@
 
 package plugin.admob;
 
+import static android.content.res.Configuration.ORIENTATION_LANDSCAPE;
 import static android.content.res.Configuration.ORIENTATION_PORTRAIT;
 import static java.lang.Math.ceil;
 
 import android.annotation.SuppressLint;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
 import android.content.pm.PackageManager;
+import android.content.res.Configuration;
 import android.graphics.Color;
 import android.graphics.Point;
+import android.os.Build;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
 import android.provider.Settings;
 import android.util.Log;
 import android.view.Display;
 import android.view.Gravity;
+import android.view.SurfaceView;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.FrameLayout;
@@ -48,6 +59,7 @@ import com.google.android.gms.ads.MobileAds;
 import com.google.android.gms.ads.OnUserEarnedRewardListener;
 import com.google.android.gms.ads.RequestConfiguration;
 import com.google.android.gms.ads.appopen.AppOpenAd;
+import com.google.android.gms.ads.initialization.AdapterStatus;
 import com.google.android.gms.ads.initialization.InitializationStatus;
 import com.google.android.gms.ads.initialization.OnInitializationCompleteListener;
 import com.google.android.gms.ads.interstitial.InterstitialAd;
@@ -68,17 +80,24 @@ import com.naef.jnlua.LuaState;
 import com.naef.jnlua.LuaType;
 import com.naef.jnlua.NamedJavaFunction;
 
-import org.json.JSONObject;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.FutureTask;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 // Plugin imports
 
@@ -105,6 +124,49 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
     private static final String TYPE_APPOPEN = "appOpen";
     private static final String TYPE_UMP= "ump";
 
+    // fullscreen preload pool limits
+    private static final int MAX_POOL_SIZE = 5;
+
+    // multi unit load() strategies and race limits
+    private static final String STRATEGY_WATERFALL = "waterfall";
+    private static final String STRATEGY_RACE = "race";
+    private static final int MAX_RACE_LIMIT = 5;
+    private static final int DEFAULT_RACE_LIMIT = 3;
+
+    // event records kept for reuse
+    private static final int MAX_POOLED_EVENTS = 32;
+
+    // fullscreen ad expiry (ads are no longer eligible to show after this time)
+    private static final long EXPIRY_FULLSCREEN_MS = TimeUnit.HOURS.toMillis(1);
+    private static final long EXPIRY_APPOPEN_MS = TimeUnit.HOURS.toMillis(4);
+    private static final long EXPIRY_REFRESH_MARGIN_MS = TimeUnit.MINUTES.toMillis(5);
+
+    // load retry defaults
+    private static final int RETRY_MAX_ATTEMPTS = 5;
+    private static final long RETRY_MAX_DELAY_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final int CIRCUIT_NOFILL_THRESHOLD = 5;
+    private static final long CIRCUIT_COOLDOWN_MS = TimeUnit.MINUTES.toMillis(2);
+
+    // load error categories
+    private static final String ERROR_CATEGORY_NO_FILL = "noFill";
+    private static final String ERROR_CATEGORY_NETWORK = "network";
+    private static final String ERROR_CATEGORY_INVALID_REQUEST = "invalidRequest";
+    private static final String ERROR_CATEGORY_TOO_MANY_REQUESTS = "tooManyRequests";
+    private static final String ERROR_CATEGORY_INTERNAL = "internal";
+
+    // event.data formats (see init option 'dataFormat')
+    private static final String DATA_FORMAT_JSON = "json";
+    private static final String DATA_FORMAT_TABLE = "table";
+
+    // views redrawn after a fullscreen ad or a banner goes away (see init option 'viewRestore')
+    private static final String VIEW_RESTORE_ALL = "all";
+    private static final String VIEW_RESTORE_TARGETED = "targeted";
+    private static final String VIEW_RESTORE_MODE_KEY = "mode";
+    private static final String VIEW_RESTORE_COUNT_KEY = "count";
+    private static final String VIEW_RESTORE_LAST_KEY = "lastTime";
+    private static final String VIEW_RESTORE_AVERAGE_KEY = "averageTime";
+    private static final String VIEW_RESTORE_MAX_KEY = "maxTime";
+
     // banner alignments
     private static final String ALIGN_TOP = "top";
     private static final String ALIGN_BOTTOM = "bottom";
@@ -114,6 +176,7 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
 
     // event phases
     private static final String PHASE_INIT = "init";
+    private static final String PHASE_INITIALIZED = "initialized";
     private static final String PHASE_DISPLAYED = "displayed";
     private static final String PHASE_REFRESHED = "refreshed";
     private static final String PHASE_HIDDEN = "hidden";
@@ -122,6 +185,8 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
     private static final String PHASE_CLOSED = "closed";
     private static final String PHASE_CLICKED = "clicked";
     private static final String PHASE_REWARD = "reward";
+    private static final String PHASE_EXPIRED = "expired";
+    private static final String PHASE_STATS = "stats";
 
     // reward keys
     private static final String REWARD_ITEM = "rewardItem";
@@ -129,6 +194,7 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
 
     // response keys
     private static final String RESPONSE_LOAD_FAILED = "loadFailed";
+    private static final String RESPONSE_CIRCUIT_OPEN = "circuitOpen";
 
     // missing Corona Event Keys
     private static final String EVENT_PHASE_KEY = "phase";
@@ -139,29 +205,163 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
     private static final String DATA_ERRORMSG_KEY = "errorMsg";
     private static final String DATA_ERRORCODE_KEY = "errorCode";
     private static final String DATA_ADUNIT_ID_KEY = "adUnitId";
+    private static final String DATA_ERROR_CATEGORY_KEY = "errorCategory";
+    private static final String DATA_RETRY_IN_KEY = "retryIn";
+    private static final String DATA_CIRCUIT_OPEN_KEY = "circuitOpen";
+    private static final String DATA_ATTEMPTS_KEY = "attempts";
+    private static final String DATA_TIMED_OUT_KEY = "timedOut";
+    private static final String DATA_ADAPTERS_KEY = "adapters";
+    private static final String DATA_AD_UNITS_KEY = "adUnits";
+
+    // mediation adapter keys (see event data 'adapters')
+    private static final String ADAPTER_STATE_KEY = "state";
+    private static final String ADAPTER_LATENCY_KEY = "latency";
+    private static final String ADAPTER_DESCRIPTION_KEY = "description";
+    private static final String ADAPTER_STATE_READY = "ready";
+    private static final String ADAPTER_STATE_NOT_READY = "notReady";
+
+    // load attempt keys (see event data 'attempts')
+    private static final String ATTEMPT_RESULT_KEY = "result";
+    private static final String ATTEMPT_LATENCY_KEY = "latency";
+
+    // load attempt results besides 'loaded' and the error categories
+    private static final String RESULT_RELEASED = "released";
+    private static final String RESULT_CANCELLED = "cancelled";
+
+    // ad pipeline metrics (see getStats() and init option 'statsInterval')
+    private static final long[] STATS_LATENCY_BUCKETS_MS = {250, 500, 1000, 2000, 5000, 10000};
+    private static final int STATS_MAX_ERROR_CODE = 15;
+    private static final long STATS_MIN_INTERVAL_MS = 1000;
+    private static final String STATS_LOAD_LATENCY_KEY = "loadLatency";
+    private static final String STATS_SHOW_LATENCY_KEY = "showLatency";
+    private static final String STATS_ERROR_CODES_KEY = "errorCodes";
+    private static final String STATS_OTHER_ERROR_CODE_KEY = "other";
+
+    // async trace slice from an ad request to its load callback (see init option 'trace')
+    private static final String TRACE_LOAD_REQUEST = "admob.loadRequest";
+
+    // offline ad provider (see init option 'simulator')
+    private static final String SIMULATOR_ERROR_DOMAIN = "simulator";
+    private static final String SIMULATOR_REWARD_TYPE = "simulated";
 
     // message constants
     private static final String CORONA_TAG = "Corona";
     private static final String ERROR_MSG = "ERROR: ";
     private static final String WARNING_MSG = "WARNING: ";
 
-    private static String functionSignature = "";                             // used in error reporting functions
-    private static final Map<String, Object> admobObjects = new HashMap<>();  // keep track of loaded objects
-
-    // object dictionary keys
-    private static final String HAS_RECEIVED_INIT_EVENT_KEY = "hasReceivedInitEvent";
-    private static final String Y_RATIO_KEY = "yRatio";
+    private static String functionSignature = "";                              // used in error reporting functions
+    private static final CoronaAdmobRegistry registry = new CoronaAdmobRegistry(); // keep track of loaded objects
 
     private static int coronaListener = CoronaLua.REFNIL;
     private static CoronaRuntimeTaskDispatcher coronaRuntimeTaskDispatcher = null;
 
     private static ConsentForm umpForm = null;
 
-    private static void invalidateAllViews() {
+    // low priority thread that times ad expiry checks and load retries
+    private static HandlerThread schedulerThread = null;
+    private static Handler schedulerHandler = null;
+
+    // load retry settings (see init option 'loadRetry') and per adUnitId failure tracking
+    private static boolean loadRetryEnabled = false;
+    private static int retryMaxAttempts = RETRY_MAX_ATTEMPTS;
+    private static long retryMaxDelayMs = RETRY_MAX_DELAY_MS;
+    private static int circuitNoFillThreshold = CIRCUIT_NOFILL_THRESHOLD;
+    private static long circuitCooldownMs = CIRCUIT_COOLDOWN_MS;
+    private static final Random retryJitter = new Random();
+
+    // coalesced event delivery (see init option 'coalesceEvents')
+    private static boolean coalesceEvents = false;
+    private static final AtomicReference<CoronaAdmobEvent> pendingEvents = new AtomicReference<>(); // newest first
+    private static final AtomicLong coalescedEventCount = new AtomicLong();
+
+    // set once the 'init' event went out, either because the SDK finished or because 'initTimeout' passed
+    private static final AtomicBoolean initEventSent = new AtomicBoolean(false);
+
+    // push event.data as a Lua table instead of a JSON string (see init option 'dataFormat')
+    private static boolean dataAsTable = false;
+
+    // event records created because the pool was empty, stops growing once the pool is warm
+    private static final AtomicLong eventAllocationCount = new AtomicLong();
+
+    // period of the 'stats' event, 0 when off (see init option 'statsInterval')
+    private static long statsIntervalMs = 0;
+
+    // emit android.os.Trace sections for Perfetto/systrace (see init option 'trace')
+    private static boolean traceEnabled = false;
+    private static final AtomicInteger traceCookies = new AtomicInteger();
+
+    // banner show() and hide() calls waiting for the UI thread, applied together by bannerLayoutTask
+    private static final ConcurrentLinkedQueue<CoronaAdmobBannerLayoutOp> pendingBannerOps = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean bannerLayoutScheduled = new AtomicBoolean(false);
+
+    // hidden banners are destroyed after this long, 0 keeps them (see init option 'bannerIdleTimeout')
+    private static long bannerIdleTimeoutMs = 0;
+
+    // banners load outside the overlay and hidden ones are GONE, so they cost no layout work (see init option 'detachedBanners')
+    private static boolean detachedBanners = false;
+
+    // answers load() and show() in-process instead of the AdMob SDK, null when off (see init option 'simulator')
+    private static CoronaAdmobSimulator simulator = null;
+
+    // only invalidate the Corona surface and the overlay instead of the whole decor view (see init option 'viewRestore')
+    private static boolean viewRestoreTargeted = false;
+
+    // duration of the view restores, in nanoseconds, written on the UI thread only
+    private static final AtomicLong viewRestoreCount = new AtomicLong();
+    private static final AtomicLong viewRestoreTotalNanos = new AtomicLong();
+    private static final AtomicLong viewRestoreLastNanos = new AtomicLong();
+    private static final AtomicLong viewRestoreMaxNanos = new AtomicLong();
+
+    // redraws the views a fullscreen ad or a banner covered and records how long that took (UI thread)
+    private static void restoreViews() {
         final CoronaActivity activity = CoronaEnvironment.getCoronaActivity();
-        if (activity != null) {
-            invalidateChildren(activity.getWindow().getDecorView());
+        if (activity == null) {
+            return;
         }
+
+        long start = System.nanoTime();
+        if (viewRestoreTargeted) {
+            invalidateCoronaViews(activity);
+        } else {
+            invalidateAllViews(activity);
+        }
+        long duration = System.nanoTime() - start;
+
+        viewRestoreCount.incrementAndGet();
+        viewRestoreTotalNanos.addAndGet(duration);
+        viewRestoreLastNanos.set(duration);
+        if (duration > viewRestoreMaxNanos.get()) {
+            viewRestoreMaxNanos.set(duration);
+        }
+    }
+
+    private static void invalidateAllViews(CoronaActivity activity) {
+        boolean traced = traceBegin("admob.invalidateAllViews");
+        invalidateChildren(activity.getWindow().getDecorView());
+        traceEnd(traced);
+    }
+
+    // the overlay with its banners and the Corona GL surface next to it, other native views are left alone
+    private static void invalidateCoronaViews(CoronaActivity activity) {
+        boolean traced = traceBegin("admob.invalidateCoronaViews");
+        ViewGroup overlay = activity.getOverlayView();
+        if (overlay != null) {
+            for (int i = 0; i < overlay.getChildCount(); i++) {
+                overlay.getChildAt(i).invalidate();
+            }
+            overlay.invalidate();
+
+            if (overlay.getParent() instanceof ViewGroup) {
+                ViewGroup content = (ViewGroup) overlay.getParent();
+                for (int i = 0; i < content.getChildCount(); i++) {
+                    View child = content.getChildAt(i);
+                    if (child instanceof SurfaceView) {
+                        child.invalidate();
+                    }
+                }
+            }
+        }
+        traceEnd(traced);
     }
 
     private static void invalidateChildren(View v) {
@@ -221,7 +421,12 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
                 new LoadConsentForm(),
                 new ShowConsentForm(),
                 new GetConsentFormStatus(),
+                new GetStats(),
+                new GetAdapterStatus(),
         };
+        for (int i = 0; i < luaFunctions.length; i++) {
+            luaFunctions[i] = new CoronaAdmobTracedFunction(luaFunctions[i]);
+        }
         String libName = L.toString(1);
         L.register(libName, luaFunctions);
 
@@ -255,7 +460,7 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
             validAdTypes.add(TYPE_APPOPEN);
             validAdTypes.add(TYPE_UMP);
 
-            admobObjects.put(HAS_RECEIVED_INIT_EVENT_KEY, false);
+            registry.hasReceivedInitEvent = false;
         }
     }
 
@@ -287,12 +492,8 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
             coronaActivity.runOnUiThread(new Runnable() {
                 @Override
                 public void run() {
-                    String adUnitId = (String) admobObjects.get(TYPE_BANNER);
-                    if (adUnitId != null) {
-                        AdView banner = (AdView) admobObjects.get(adUnitId);
-                        if (banner != null) {
-                            banner.pause();
-                        }
+                    for (CoronaAdmobBannerSlot slot : registry.getBanners()) {
+                        slot.pauseViews();
                     }
                 }
             });
@@ -314,12 +515,8 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
             coronaActivity.runOnUiThread(new Runnable() {
                 @Override
                 public void run() {
-                    String adUnitId = (String) admobObjects.get(TYPE_BANNER);
-                    if (adUnitId != null) {
-                        AdView banner = (AdView) admobObjects.get(adUnitId);
-                        if (banner != null) {
-                            banner.resume();
-                        }
+                    for (CoronaAdmobBannerSlot slot : registry.getBanners()) {
+                        slot.resumeViews();
                     }
                 }
             });
@@ -346,27 +543,13 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
                 @Override
                 public void run() {
                     // clear the saved ad objects
-                    for (String key : admobObjects.keySet()) {
-                        Object object = admobObjects.get(key);
-
-                        if (object instanceof AdView) {
-                            AdView banner = (AdView) object;
-                            //noinspection ConstantConditions
-                            banner.setAdListener(null);
-                            banner.destroy();
-                        } else if (object instanceof CoronaAdmobInterstitialLoadDelegate) {
-                            CoronaAdmobInterstitialLoadDelegate interstitial = (CoronaAdmobInterstitialLoadDelegate) object;
-                            if (interstitial.interstitialAd != null) {
-                                interstitial.interstitialAd.setFullScreenContentCallback(null);
-                                interstitial.interstitialAd = null;
-                            }
-                        } else if (object instanceof CoronaAdmobRewardedLoadDelegate) {
-                            CoronaAdmobRewardedLoadDelegate rewardedAd = (CoronaAdmobRewardedLoadDelegate) object;
-                            if (rewardedAd.rewardedAd != null) {
-                                rewardedAd.rewardedAd.setFullScreenContentCallback(null);
-                                rewardedAd.rewardedAd = null;
-                            }
-                        }
+                    coronaActivity.getApplicationContext().unregisterComponentCallbacks(memoryCallbacks);
+                    for (CoronaAdmobBannerSlot slot : registry.getBanners()) {
+                        slot.destroyBanner();
+                        slot.releaseBuffers();
+                    }
+                    for (CoronaAdmobFullScreenPool pool : registry.getPools()) {
+                        pool.releaseAll();
                     }
 
                     if (runtime != null) {
@@ -374,7 +557,29 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
                     }
                     coronaListener = CoronaLua.REFNIL;
 
-                    admobObjects.clear();
+                    stopSchedulerHandler();
+                    loadRetryEnabled = false;
+                    retryMaxAttempts = RETRY_MAX_ATTEMPTS;
+                    retryMaxDelayMs = RETRY_MAX_DELAY_MS;
+                    circuitNoFillThreshold = CIRCUIT_NOFILL_THRESHOLD;
+                    circuitCooldownMs = CIRCUIT_COOLDOWN_MS;
+                    coalesceEvents = false;
+                    initEventSent.set(false);
+                    dataAsTable = false;
+                    pendingEvents.set(null);
+                    coalescedEventCount.set(0);
+                    statsIntervalMs = 0;
+                    traceEnabled = false;
+                    simulator = null;
+                    bannerIdleTimeoutMs = 0;
+                    detachedBanners = false;
+                    pendingBannerOps.clear();
+                    viewRestoreTargeted = false;
+                    viewRestoreCount.set(0);
+                    viewRestoreTotalNanos.set(0);
+                    viewRestoreLastNanos.set(0);
+                    viewRestoreMaxNanos.set(0);
+                    registry.clear();
                     validAdTypes.clear();
                     coronaRuntimeTaskDispatcher = null;
                     umpForm = null;
@@ -429,7 +634,7 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
             return false;
         }
 
-        if (!(boolean) admobObjects.get(HAS_RECEIVED_INIT_EVENT_KEY)) {
+        if (!registry.hasReceivedInitEvent) {
             logMsg(ERROR_MSG, "You must wait for the 'init' event before calling other API functions");
             return false;
         }
@@ -437,6 +642,258 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
         return true;
     }
 
+    // called once, either when the SDK finished initializing or when 'initTimeout' passed
+    private void onSDKReady(boolean timedOut, InitializationStatus initializationStatus) {
+        // used in isSDKInitialized() to determine if plugin API calls can be made
+        registry.hasReceivedInitEvent = true;
+
+        // log plugin version
+        Log.i(CORONA_TAG, PLUGIN_NAME + ": " + PLUGIN_VERSION + " (SDK: " + PLUGIN_SDK_VERSION + ")");
+
+        // send Corona Lua event
+        CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_INIT, null);
+        if (timedOut) {
+            event.set(CoronaAdmobEventField.TIMED_OUT, true);
+        }
+        if (initializationStatus != null) {
+            event.set(CoronaAdmobEventField.ADAPTERS, new CoronaAdmobAdapterStatus(initializationStatus));
+        }
+        dispatchLuaEvent(event);
+    }
+
+    private static long getExpiryMillis(String adType) {
+        return adType.equals(TYPE_APPOPEN) ? EXPIRY_APPOPEN_MS : EXPIRY_FULLSCREEN_MS;
+    }
+
+    private static synchronized Handler getSchedulerHandler() {
+        if (schedulerHandler == null) {
+            schedulerThread = new HandlerThread("AdmobScheduler", Process.THREAD_PRIORITY_BACKGROUND);
+            schedulerThread.start();
+            schedulerHandler = new Handler(schedulerThread.getLooper());
+        }
+        return schedulerHandler;
+    }
+
+    // runs action on the UI thread after delayMs, timed by the scheduler thread
+    private static void scheduleOnUiThread(final Runnable action, long delayMs) {
+        getSchedulerHandler().postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                CoronaActivity coronaActivity = CoronaEnvironment.getCoronaActivity();
+                if (coronaActivity != null) {
+                    coronaActivity.runOnUiThread(action);
+                }
+            }
+        }, delayMs);
+    }
+
+    // sends the 'stats' event every statsIntervalMs, runs on the scheduler thread
+    private final Runnable statsTicker = new Runnable() {
+        @Override
+        public void run() {
+            if (statsIntervalMs <= 0) {
+                return;
+            }
+            CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_STATS, null);
+            event.set(CoronaAdmobEventField.AD_UNITS, registry);
+            dispatchLuaEvent(event);
+            getSchedulerHandler().postDelayed(this, statsIntervalMs);
+        }
+    };
+
+    // drops hidden banners when the system runs low on memory, a later load() creates them again
+    private final ComponentCallbacks2 memoryCallbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            // UI_HIDDEN only means the app went to the background
+            if (level >= TRIM_MEMORY_RUNNING_LOW && level != TRIM_MEMORY_UI_HIDDEN) {
+                releaseHiddenBanners();
+            }
+        }
+
+        @Override
+        public void onLowMemory() {
+            releaseHiddenBanners();
+        }
+
+        @Override
+        public void onConfigurationChanged(@NonNull Configuration newConfig) {
+            // the Corona view has not been resized yet, so the metrics are recomputed on their next use
+            registry.layoutMetricsStale = true;
+
+            final int orientation = newConfig.orientation;
+            final CoronaActivity coronaActivity = CoronaEnvironment.getCoronaActivity();
+            if (coronaActivity != null && (orientation == ORIENTATION_PORTRAIT || orientation == ORIENTATION_LANDSCAPE)) {
+                coronaActivity.runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        swapRotationBanners(orientation);
+                    }
+                });
+            }
+        }
+    };
+
+    // caches the screen height and the Corona->device coordinate ratio used to place banners (UI thread)
+    private void updateLayoutMetrics(CoronaActivity activity) {
+        if (!registry.layoutMetricsStale) {
+            return;
+        }
+
+        Display display = activity.getWindowManager().getDefaultDisplay();
+        int orientation = activity.getResources().getConfiguration().orientation;
+        Point size = new Point();
+        display.getSize(size);
+        registry.orientedHeight = (orientation == ORIENTATION_PORTRAIT) ? size.y : size.x;
+
+        // full screen widths in dp for the adaptive banner sizes of both orientations
+        float density = activity.getResources().getDisplayMetrics().density;
+        registry.orientation = orientation == ORIENTATION_LANDSCAPE ? ORIENTATION_LANDSCAPE : ORIENTATION_PORTRAIT;
+        registry.portraitWidthDp = (int) (Math.min(size.x, size.y) / density);
+        registry.landscapeWidthDp = (int) (Math.max(size.x, size.y) / density);
+        registry.adSizes.precompute(activity, registry.portraitWidthDp, registry.landscapeWidthDp);
+
+        // we use Corona's built-in point conversion to take advantage of any device specific logic in the Corona core
+        Point point1 = activity.convertCoronaPointToAndroidPoint(0, 0);
+        Point point2 = activity.convertCoronaPointToAndroidPoint(1000, 1000);
+        if (point1 == null || point2 == null) {
+            // the Corona view is not ready yet, keep the last ratio and try again next time
+            return;
+        }
+        registry.yRatio = (double) (point2.y - point1.y) / 1000.0;
+        registry.layoutMetricsStale = false;
+    }
+
+    // UI thread
+    private void releaseHiddenBanners() {
+        for (CoronaAdmobBannerSlot slot : registry.getBanners()) {
+            slot.releaseBuffers();
+            AdView banner = slot.banner;
+            if (banner != null && banner.getVisibility() != View.VISIBLE) {
+                logMsg(WARNING_MSG, "Low memory, releasing hidden banner '" + slot.adUnitId + "'. Call load() again before showing it");
+                slot.destroyBanner();
+            }
+        }
+    }
+
+    // pauses a banner that went out of sight and destroys it if it stays hidden for bannerIdleTimeoutMs (UI thread)
+    private void onBannerHidden(final CoronaAdmobBannerSlot slot) {
+        slot.pause();
+        final long hiddenSince = SystemClock.elapsedRealtime();
+        slot.hiddenSince = hiddenSince;
+
+        if (bannerIdleTimeoutMs > 0) {
+            final AdView banner = slot.banner;
+            scheduleOnUiThread(new Runnable() {
+                @Override
+                public void run() {
+                    // skip if the banner was shown, reloaded or replaced in the meantime
+                    if (slot.banner == banner && slot.hiddenSince == hiddenSince) {
+                        logMsg(WARNING_MSG, "Banner '" + slot.adUnitId + "' was hidden for " + bannerIdleTimeoutMs / 1000 + " seconds, releasing it. Call load() again before showing it");
+                        slot.destroyBanner();
+                        slot.releaseBuffers();
+                    }
+                }
+            }, bannerIdleTimeoutMs);
+        }
+    }
+
+    // sort load failures by LoadAdError code
+    private static String getErrorCategory(int errorCode, String errorMsg) {
+        switch (errorCode) {
+            case AdRequest.ERROR_CODE_INTERNAL_ERROR:
+                // the SDK reports request throttling as an internal error without a code of its own.
+                // Matching its English message is best-effort, an unknown text falls back to 'internal'
+                if (errorMsg != null && errorMsg.startsWith("Too many recently failed requests")) {
+                    return ERROR_CATEGORY_TOO_MANY_REQUESTS;
+                }
+                return ERROR_CATEGORY_INTERNAL;
+            case AdRequest.ERROR_CODE_NO_FILL:
+            case AdRequest.ERROR_CODE_MEDIATION_NO_FILL:
+                return ERROR_CATEGORY_NO_FILL;
+            case AdRequest.ERROR_CODE_NETWORK_ERROR:
+                return ERROR_CATEGORY_NETWORK;
+            case AdRequest.ERROR_CODE_INVALID_REQUEST:
+            case AdRequest.ERROR_CODE_APP_ID_MISSING:
+            case AdRequest.ERROR_CODE_REQUEST_ID_MISMATCH:
+            case AdRequest.ERROR_CODE_INVALID_AD_STRING:
+                return ERROR_CATEGORY_INVALID_REQUEST;
+            default:
+                return ERROR_CATEGORY_INTERNAL;
+        }
+    }
+
+    // returns the pool of adUnitId, creating it on first use (UI thread)
+    private CoronaAdmobFullScreenPool obtainPool(String adType, String adUnitId) {
+        CoronaAdmobFullScreenPool pool = registry.getPool(adType, adUnitId);
+        if (pool == null) {
+            pool = new CoronaAdmobFullScreenPool(adType, adUnitId);
+            registry.putPool(pool);
+        }
+        return pool;
+    }
+
+    // begins a trace section when tracing is on, pass the result to traceEnd()
+    private static boolean traceBegin(String section) {
+        if (!traceEnabled) {
+            return false;
+        }
+        Trace.beginSection(section);
+        return true;
+    }
+
+    private static void traceEnd(boolean traced) {
+        if (traced) {
+            Trace.endSection();
+        }
+    }
+
+    // begins an async trace slice that can end on another thread, returns its cookie or 0 when not traced
+    private static int traceBeginAsync(String section) {
+        if (!traceEnabled || Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+            return 0;
+        }
+        int cookie = traceCookies.incrementAndGet();
+        if (cookie == 0) {
+            cookie = traceCookies.incrementAndGet();
+        }
+        Trace.beginAsyncSection(section, cookie);
+        return cookie;
+    }
+
+    private static void traceEndAsync(String section, int cookie) {
+        if (cookie != 0 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.endAsyncSection(section, cookie);
+        }
+    }
+
+    // wraps a UI thread task in a trace section, the task is returned as is when tracing is off
+    private static Runnable traceRunnable(final String section, final Runnable action) {
+        if (!traceEnabled) {
+            return action;
+        }
+        return new Runnable() {
+            @Override
+            public void run() {
+                Trace.beginSection(section);
+                try {
+                    action.run();
+                } finally {
+                    Trace.endSection();
+                }
+            }
+        };
+    }
+
+    private static synchronized void stopSchedulerHandler() {
+        if (schedulerThread != null) {
+            schedulerHandler.removeCallbacksAndMessages(null);
+            schedulerThread.quitSafely();
+            schedulerThread = null;
+            schedulerHandler = null;
+        }
+    }
+
     /**
      * getMetadata for App to check
      */
@@ -450,44 +907,373 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
         }
     }
 
-    // dispatch a Lua event to our callback (dynamic handling of properties through map)
-    private void dispatchLuaEvent(final Map<String, Object> event) {
-        if (coronaRuntimeTaskDispatcher != null) {
-            coronaRuntimeTaskDispatcher.send(new CoronaRuntimeTask() {
-                @Override
-                public void executeUsing(CoronaRuntime runtime) {
-                    try {
-                        LuaState L = runtime.getLuaState();
-                        CoronaLua.newEvent(L, EVENT_NAME);
-                        boolean hasErrorKey = false;
+    // dispatch a Lua event to our callback, the event record goes back to its pool once delivered
+    private void dispatchLuaEvent(CoronaAdmobEvent event) {
+        boolean traced = traceBegin("admob.dispatchLuaEvent");
+        try {
+            if (coronaRuntimeTaskDispatcher == null) {
+                CoronaAdmobEvent.recycle(event);
+                return;
+            }
+
+            if (coalesceEvents) {
+                // push the event onto the pending list, only the event that finds it empty needs to send a runtime task
+                CoronaAdmobEvent head;
+                do {
+                    head = pendingEvents.get();
+                    event.next = head;
+                } while (!pendingEvents.compareAndSet(head, event));
+                if (head == null) {
+                    coronaRuntimeTaskDispatcher.send(eventDrainTask);
+                }
+                return;
+            }
 
-                        // add event parameters from map
-                        for (String key : event.keySet()) {
-                            CoronaLua.pushValue(L, event.get(key));           // push value
-                            L.setField(-2, key);                              // push key
+            coronaRuntimeTaskDispatcher.send(event);
+        } finally {
+            traceEnd(traced);
+        }
+    }
 
-                            if (!hasErrorKey) {
-                                hasErrorKey = key.equals(CoronaLuaEvent.ISERROR_KEY);
-                            }
-                        }
+    // delivers all pending events in callback order, runs once per Corona frame at most
+    private final CoronaRuntimeTask eventDrainTask = new CoronaRuntimeTask() {
+        @Override
+        public void executeUsing(CoronaRuntime runtime) {
+            // take the whole list, events dispatched from here on schedule the next drain
+            CoronaAdmobEvent event = pendingEvents.getAndSet(null);
+
+            // the list holds the newest event first, reverse it in place
+            CoronaAdmobEvent ordered = null;
+            while (event != null) {
+                CoronaAdmobEvent next = event.next;
+                event.next = ordered;
+                ordered = event;
+                event = next;
+            }
 
-                        // add error key if not in map
-                        if (!hasErrorKey) {
-                            L.pushBoolean(false);
-                            L.setField(-2, CoronaLuaEvent.ISERROR_KEY);
-                        }
+            LuaState L = runtime.getLuaState();
+            int delivered = 0;
+            while (ordered != null) {
+                CoronaAdmobEvent next = ordered.next;
+                ordered.deliver(L);
+                ordered = next;
+                delivered++;
+            }
+            if (delivered > 1) {
+                coalescedEventCount.addAndGet(delivered - 1);
+            }
+        }
+    };
+
+    // queues a banner show() or hide(), the changes of a frame reach the overlay together in one UI thread pass
+    private void queueBannerLayout(CoronaActivity activity, CoronaAdmobBannerLayoutOp op) {
+        pendingBannerOps.add(op);
+        if (bannerLayoutScheduled.compareAndSet(false, true)) {
+            activity.runOnUiThread(traceRunnable("admob.bannerLayout.ui", bannerLayoutTask));
+        }
+    }
+
+    // applies the queued banner changes in call order
+    private final Runnable bannerLayoutTask = new Runnable() {
+        @Override
+        public void run() {
+            // changes queued from here on schedule the next pass
+            bannerLayoutScheduled.set(false);
+
+            CoronaActivity coronaActivity = CoronaEnvironment.getCoronaActivity();
+            CoronaAdmobBannerLayoutOp op;
+            while ((op = pendingBannerOps.poll()) != null) {
+                if (coronaActivity == null) {
+                    continue;
+                }
+                if (op.show) {
+                    showBanner(coronaActivity, op);
+                } else {
+                    hideBanner(coronaActivity, op);
+                }
+            }
+        }
+    };
+
+    // UI thread
+    private void showBanner(CoronaActivity coronaActivity, CoronaAdmobBannerLayoutOp op) {
+        String adUnitId;
+        if (op.adUnitId != null) {
+            adUnitId = op.adUnitId;
+            registry.setDefaultAdUnitId(TYPE_BANNER, adUnitId); // save setting as default value
+        } else {
+            adUnitId = registry.getDefaultAdUnitId(TYPE_BANNER);
+        }
+
+        CoronaAdmobBannerSlot slot = registry.getBanner(adUnitId);
+        AdView banner = slot != null ? slot.banner : null;
+
+        if ((banner == null) || (!((CoronaAdmobBannerDelegate) banner.getAdListener()).isLoaded)) {
+            logMsg(WARNING_MSG, "Banner not loaded");
+            return;
+        }
 
-                        // add provider
-                        L.pushString(PROVIDER_NAME);
-                        L.setField(-2, CoronaLuaEvent.PROVIDER_KEY);
+        // a banner that is already attached only gets new margins and gravity, re-adding it would relayout the whole overlay
+        FrameLayout overlay = coronaActivity.getOverlayView();
+        boolean attached = banner.getParent() == overlay;
+        FrameLayout.LayoutParams params;
+        if (attached && banner.getLayoutParams() instanceof FrameLayout.LayoutParams) {
+            params = (FrameLayout.LayoutParams) banner.getLayoutParams();
+        } else {
+            params = new FrameLayout.LayoutParams(
+                    FrameLayout.LayoutParams.WRAP_CONTENT,
+                    FrameLayout.LayoutParams.WRAP_CONTENT
+            );
+        }
+        int oldGravity = params.gravity;
+        int oldTopMargin = params.topMargin;
+        int oldBottomMargin = params.bottomMargin;
+        params.topMargin = 0;
+        params.bottomMargin = 0;
 
-                        CoronaLua.dispatchEvent(L, coronaListener, 0);
-                    } catch (Exception ex) {
-                        ex.printStackTrace();
+        if (op.yAlign != null) {
+            params.gravity = Gravity.TOP | Gravity.CENTER;
+
+            if (op.yAlign.equals(ALIGN_BOTTOM)) {
+                params.gravity = Gravity.BOTTOM | Gravity.CENTER;
+            }
+        } else {
+            updateLayoutMetrics(coronaActivity);
+            double newBannerY = ceil(op.yOffset * registry.yRatio);
+            int orientedHeight = registry.orientedHeight;
+
+            AdSize bannerSize = banner.getAdSize();
+            if (bannerSize != null) {
+                // make sure the banner frame is visible.
+                // adjust it if the user has specified 'y' which will render it partially off-screen
+                if (newBannerY >= 0) { // offset from top
+                    if (newBannerY + bannerSize.getHeight() > orientedHeight) {
+                        logMsg(WARNING_MSG, "Banner y position off screen. Adjusting position.");
+                        params.gravity = Gravity.BOTTOM | Gravity.CENTER;
+                    } else {
+                        params.gravity = Gravity.TOP | Gravity.CENTER;
+                        params.topMargin = (int) newBannerY;
+                    }
+                } else {
+                    if (orientedHeight - bannerSize.getHeight() + newBannerY < 0) {
+                        logMsg(WARNING_MSG, "Banner y position off screen. Adjusting position.");
+                        params.gravity = Gravity.TOP | Gravity.CENTER;
+                    } else {
+                        params.gravity = Gravity.BOTTOM | Gravity.CENTER;
+                        params.bottomMargin = Math.abs((int) newBannerY);
                     }
                 }
-            });
+            } else {
+                params.gravity = Gravity.BOTTOM | Gravity.CENTER;
+            }
+        }
+
+        if (!attached) {
+            if (banner.getParent() != null) {
+                ((ViewGroup) banner.getParent()).removeView(banner);
+            }
+            overlay.addView(banner, params);
+        } else if (params.gravity != oldGravity || params.topMargin != oldTopMargin || params.bottomMargin != oldBottomMargin) {
+            banner.setLayoutParams(params);
+        }
+
+        if (op.bgColor != null) {
+            banner.setBackgroundColor(Color.parseColor(op.bgColor));
+        }
+
+        // showing a visible banner again just moves it
+        if (banner.getVisibility() == View.VISIBLE) {
+            return;
+        }
+        banner.setVisibility(View.VISIBLE);
+        banner.bringToFront();
+        slot.markActive();
+        slot.publishState(true);
+        slot.stats.recordShown(SystemClock.elapsedRealtime() - op.requestTime);
+
+        // send Corona Lua event
+        // AdMob has no 'displayed' event in their Android banner listener so we fake it here
+        CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_DISPLAYED, TYPE_BANNER);
+        event.set(CoronaAdmobEventField.ADUNIT_ID, banner.getAdUnitId());
+        dispatchLuaEvent(event);
+    }
+
+    // UI thread
+    private void hideBanner(CoronaActivity coronaActivity, CoronaAdmobBannerLayoutOp op) {
+        String adUnitId = op.adUnitId != null ? op.adUnitId : registry.getDefaultAdUnitId(TYPE_BANNER);
+        CoronaAdmobBannerSlot slot = registry.getBanner(adUnitId);
+        if (slot == null) {
+            logMsg(WARNING_MSG, "Banner not loaded");
+            return;
+        }
+
+        AdView banner = slot.banner;
+        if (banner == null || banner.getVisibility() != View.VISIBLE) {
+            logMsg(WARNING_MSG, "Banner not visible");
+            return;
+        }
+
+        // hide banner, it stays attached so the next show() only has to update its layout params
+        banner.setVisibility(getHiddenBannerVisibility());
+        slot.publishState(slot.state.loaded);
+        onBannerHidden(slot);
+
+        // use AdMob onAdClosed to send a 'hidden' event
+        banner.getAdListener().onAdClosed();
+    }
+
+    // cached adaptive size for the full screen width in the given orientation (UI thread, after updateLayoutMetrics())
+    private AdSize getBannerAdSize(Context context, int orientation, boolean inline) {
+        int widthDp = orientation == ORIENTATION_LANDSCAPE ? registry.landscapeWidthDp : registry.portraitWidthDp;
+        return registry.adSizes.get(context, orientation, widthDp, inline);
+    }
+
+    // resets a reused banner view or creates a new one, returns its delegate (UI thread)
+    private CoronaAdmobBannerDelegate prepareBannerView(CoronaActivity activity, CoronaAdmobBannerSlot slot, AdView banner, AdSize adSize, AdRequest request) {
+        CoronaAdmobBannerDelegate delegate;
+        if (banner != null) {
+            delegate = (CoronaAdmobBannerDelegate) banner.getAdListener();
+            delegate.request = request;
+            delegate.isLoaded = false;
+        } else {
+            banner = new AdView(activity);
+            banner.setAdUnitId(slot.adUnitId);
+            banner.setAdSize(adSize);
+            delegate = new CoronaAdmobBannerDelegate(slot, banner, request);
+            banner.setAdListener(delegate);
+            banner.setVisibility(getHiddenBannerVisibility());
+        }
+
+        // with an explicit AdSize the request does not need a measured view, show() attaches a detached banner
+        if (banner.getParent() == null && !detachedBanners) {
+            // set layout params
+            FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(
+                    FrameLayout.LayoutParams.WRAP_CONTENT,
+                    FrameLayout.LayoutParams.WRAP_CONTENT
+            );
+
+            // the banner has to be in the hierarchy to get the proper size when loading
+            // show() later moves it to its final position in place
+            params.gravity = Gravity.BOTTOM | Gravity.CENTER;
+            activity.getOverlayView().addView(banner, params);
+        }
+        return delegate;
+    }
+
+    // loads the standby banner for the orientation the device is not in (UI thread)
+    private void loadRotationBanner(CoronaActivity activity, CoronaAdmobBannerSlot slot, AdRequest request) {
+        int orientation = getOtherOrientation(registry.orientation);
+        AdSize adSize = getBannerAdSize(activity, orientation, slot.inlineAdaptive);
+        AdView standby = slot.rotationBanner;
+        if (standby != null && !adSize.equals(standby.getAdSize())) {
+            slot.destroyRotationBanner();
+            standby = null;
+        }
+        CoronaAdmobBannerDelegate delegate = prepareBannerView(activity, slot, standby, adSize, request);
+        slot.rotationBanner = delegate.currentBanner;
+        slot.rotationOrientation = orientation;
+
+        // a standby banner is paused once it has loaded
+        CoronaAdmobBannerSlot.resumeView(delegate.currentBanner);
+        delegate.loadAd();
+    }
+
+    // swaps in the standby banners loaded for the new orientation, a visible banner keeps its place on screen (UI thread)
+    private void swapRotationBanners(int orientation) {
+        for (CoronaAdmobBannerSlot slot : registry.getBanners()) {
+            AdView current = slot.banner;
+            AdView standby = slot.rotationBanner;
+            if (current == null || standby == null || slot.rotationOrientation != orientation
+                    || !((CoronaAdmobBannerDelegate) standby.getAdListener()).isLoaded) {
+                continue;
+            }
+
+            // every view keeps its own paused state, the loaded standby is paused until markActive()
+            boolean visible = current.getVisibility() == View.VISIBLE;
+            slot.pause();
+            slot.banner = standby;
+            slot.rotationBanner = current;
+            slot.rotationOrientation = getOtherOrientation(orientation);
+
+            if (visible) {
+                moveIntoPlace(current, standby);
+                slot.markActive();
+            }
+            slot.publishState(true);
+            if (!visible) {
+                onBannerHidden(slot);
+            }
+        }
+    }
+
+    // loads the replacement of a double-buffered banner next to the one on screen (UI thread)
+    private void loadPendingBanner(CoronaActivity activity, CoronaAdmobBannerSlot slot, AdSize adSize, AdRequest request) {
+        // a replacement that is still loading is restarted, otherwise the view left over from the last swap is reused
+        AdView pending = slot.pendingBanner;
+        if (pending == null) {
+            pending = slot.spareBanner;
+            slot.spareBanner = null;
+        }
+        if (pending != null && !adSize.equals(pending.getAdSize())) {
+            CoronaAdmobBannerSlot.destroyView(pending);
+            pending = null;
+        }
+        CoronaAdmobBannerDelegate delegate = prepareBannerView(activity, slot, pending, adSize, request);
+        slot.pendingBanner = delegate.currentBanner;
+
+        // the spare view was paused when it was taken off screen
+        CoronaAdmobBannerSlot.resumeView(delegate.currentBanner);
+        delegate.loadAd();
+    }
+
+    // puts the loaded replacement where the current banner is, in a single UI thread pass (UI thread)
+    private void swapInPendingBanner(CoronaAdmobBannerSlot slot) {
+        AdView current = slot.banner;
+        AdView replacement = slot.pendingBanner;
+        slot.pendingBanner = null;
+
+        boolean visible = current != null && current.getVisibility() == View.VISIBLE;
+        if (visible) {
+            moveIntoPlace(current, replacement);
+        }
+
+        // the old banner is kept paused for the next reload, the replacement stays paused if the runtime was suspended while it loaded
+        slot.pause();
+        slot.banner = replacement;
+        if (current != null) {
+            slot.keepSpare(current);
+        }
+    }
+
+    // shows 'to' with the gravity and margins of 'from' and hides 'from'
+    private static void moveIntoPlace(AdView from, AdView to) {
+        FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(
+                FrameLayout.LayoutParams.WRAP_CONTENT,
+                FrameLayout.LayoutParams.WRAP_CONTENT
+        );
+        if (from.getLayoutParams() instanceof FrameLayout.LayoutParams) {
+            FrameLayout.LayoutParams fromParams = (FrameLayout.LayoutParams) from.getLayoutParams();
+            params.gravity = fromParams.gravity;
+            params.topMargin = fromParams.topMargin;
+            params.bottomMargin = fromParams.bottomMargin;
         }
+        if (to.getParent() == null && from.getParent() instanceof ViewGroup) {
+            ((ViewGroup) from.getParent()).addView(to, params);
+        } else {
+            to.setLayoutParams(params);
+        }
+        to.setVisibility(View.VISIBLE);
+        to.bringToFront();
+        from.setVisibility(getHiddenBannerVisibility());
+    }
+
+    // GONE children are skipped by the overlay's measure and layout passes, INVISIBLE ones are still sized
+    private static int getHiddenBannerVisibility() {
+        return detachedBanners ? View.GONE : View.INVISIBLE;
+    }
+
+    private static int getOtherOrientation(int orientation) {
+        return orientation == ORIENTATION_LANDSCAPE ? ORIENTATION_PORTRAIT : ORIENTATION_LANDSCAPE;
     }
 
     // -------------------------------------------------------
@@ -553,6 +1339,8 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
 
             boolean testMode = false;
             double videoAdVolume = 1.0;
+            double initTimeout = 0;
+            boolean disableMediationInitialization = false;
 
             // Get the listener (required)
             if (CoronaLua.isListener(luaState, 1, PROVIDER_NAME)) {
@@ -589,62 +1377,441 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
                                 return 0;
                             }
                             break;
-                        default:
-                            logMsg(ERROR_MSG, "Invalid option '" + key + "'");
-                            return 0;
-                    }
-                }
-            } else {
-                logMsg(ERROR_MSG, "options table expected, got " + luaState.typeName(2));
-                return 0;
-            }
-
-            // declare final variables for inner loop
-            final CoronaActivity coronaActivity = CoronaEnvironment.getCoronaActivity();
-            final double fVideoAdVolume = videoAdVolume;
-
-            List<String> testDeviceIds = new ArrayList<String>();
-            testDeviceIds.add(AdRequest.DEVICE_ID_EMULATOR);
-            // generate Google Test ID for current device
-            if (testMode) {
-                //get MD5 hashed device id
-                @SuppressLint("HardwareIds") String android_id = Settings.Secure.getString(coronaActivity.getContentResolver(), Settings.Secure.ANDROID_ID);
-                String adMobDeviceID = md5(android_id).toUpperCase();
-
-                Log.i(CORONA_TAG, PLUGIN_NAME + ": Generated AdMob Test ID '" + adMobDeviceID + "'");
-                testDeviceIds.add(adMobDeviceID);
-            }
-            RequestConfiguration configuration = new RequestConfiguration.Builder().setTestDeviceIds(testDeviceIds).build();
-            MobileAds.setRequestConfiguration(configuration);
-
-
-            if (coronaActivity != null) {
-                coronaActivity.runOnUiThread(new Runnable() {
-                    @Override
-                    public void run() {
-                        // initialize ads SDK
-                        MobileAds.initialize(coronaActivity, new OnInitializationCompleteListener() {
-                            @Override
-                            public void onInitializationComplete(InitializationStatus initializationStatus) {
-                                // used in isSDKInitialized() to determine if plugin API calls can be made
-                                admobObjects.put(HAS_RECEIVED_INIT_EVENT_KEY, true);
-                                MobileAds.setAppVolume((float) fVideoAdVolume);
-
-                                // log plugin version
-                                Log.i(CORONA_TAG, PLUGIN_NAME + ": " + PLUGIN_VERSION + " (SDK: " + PLUGIN_SDK_VERSION + ")");
-
-                                // send Corona Lua event
-                                Map<String, Object> coronaEvent = new HashMap<>();
-                                coronaEvent.put(EVENT_PHASE_KEY, PHASE_INIT);
-                                dispatchLuaEvent(coronaEvent);
-                            }
-                        });
-                    }
-                });
+                        case "loadRetry":
+                            if (luaState.type(-1) == LuaType.BOOLEAN) {
+                                loadRetryEnabled = luaState.toBoolean(-1);
+                            } else if (luaState.type(-1) == LuaType.TABLE) {
+                                loadRetryEnabled = true;
+                                for (luaState.pushNil(); luaState.next(-2); luaState.pop(1)) {
+                                    String retryKey = luaState.toString(-2);
+                                    if (luaState.type(-1) != LuaType.NUMBER) {
+                                        logMsg(ERROR_MSG, "options.loadRetry." + retryKey + " (number) expected, got " + luaState.typeName(-1));
+                                        return 0;
+                                    }
+                                    switch (retryKey) {
+                                        case "maxRetries":
+                                            retryMaxAttempts = (int) luaState.toNumber(-1);
+                                            if (retryMaxAttempts < 1) {
+                                                logMsg(ERROR_MSG, "options.loadRetry.maxRetries must be at least 1, got " + retryMaxAttempts);
+                                                return 0;
+                                            }
+                                            break;
+                                        case "maxDelay":
+                                            retryMaxDelayMs = (long) (luaState.toNumber(-1) * 1000);
+                                            if (retryMaxDelayMs < 0) {
+                                                logMsg(ERROR_MSG, "options.loadRetry.maxDelay cannot be negative");
+                                                return 0;
+                                            }
+                                            break;
+                                        case "circuitThreshold":
+                                            circuitNoFillThreshold = (int) luaState.toNumber(-1);
+                                            if (circuitNoFillThreshold < 1) {
+                                                logMsg(ERROR_MSG, "options.loadRetry.circuitThreshold must be at least 1, got " + circuitNoFillThreshold);
+                                                return 0;
+                                            }
+                                            break;
+                                        case "circuitCooldown":
+                                            circuitCooldownMs = (long) (luaState.toNumber(-1) * 1000);
+                                            if (circuitCooldownMs < 0) {
+                                                logMsg(ERROR_MSG, "options.loadRetry.circuitCooldown cannot be negative");
+                                                return 0;
+                                            }
+                                            break;
+                                        default:
+                                            logMsg(ERROR_MSG, "Invalid option 'loadRetry." + retryKey + "'");
+                                            return 0;
+                                    }
+                                }
+                            } else {
+                                logMsg(ERROR_MSG, "options.loadRetry (boolean or table) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "initTimeout":
+                            if (luaState.type(-1) == LuaType.NUMBER) {
+                                initTimeout = luaState.toNumber(-1);
+                                if (initTimeout < 0) {
+                                    logMsg(ERROR_MSG, "options.initTimeout cannot be negative");
+                                    return 0;
+                                }
+                            } else {
+                                logMsg(ERROR_MSG, "options.initTimeout (number) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "disableMediationInitialization":
+                            if (luaState.type(-1) == LuaType.BOOLEAN) {
+                                disableMediationInitialization = luaState.toBoolean(-1);
+                            } else {
+                                logMsg(ERROR_MSG, "options.disableMediationInitialization (boolean) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "dataFormat":
+                            if (luaState.type(-1) == LuaType.STRING) {
+                                String dataFormat = luaState.toString(-1);
+                                if (dataFormat.equals(DATA_FORMAT_TABLE)) {
+                                    dataAsTable = true;
+                                } else if (dataFormat.equals(DATA_FORMAT_JSON)) {
+                                    dataAsTable = false;
+                                } else {
+                                    logMsg(ERROR_MSG, "options.dataFormat must be '" + DATA_FORMAT_JSON + "' or '" + DATA_FORMAT_TABLE + "', got '" + dataFormat + "'");
+                                    return 0;
+                                }
+                            } else {
+                                logMsg(ERROR_MSG, "options.dataFormat (string) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "coalesceEvents":
+                            if (luaState.type(-1) == LuaType.BOOLEAN) {
+                                coalesceEvents = luaState.toBoolean(-1);
+                            } else {
+                                logMsg(ERROR_MSG, "options.coalesceEvents (boolean) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "trace":
+                            if (luaState.type(-1) == LuaType.BOOLEAN) {
+                                traceEnabled = luaState.toBoolean(-1);
+                            } else {
+                                logMsg(ERROR_MSG, "options.trace (boolean) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "statsInterval":
+                            if (luaState.type(-1) == LuaType.NUMBER) {
+                                long intervalMs = (long) (luaState.toNumber(-1) * 1000);
+                                if (intervalMs != 0 && intervalMs < STATS_MIN_INTERVAL_MS) {
+                                    logMsg(ERROR_MSG, "options.statsInterval must be 0 or at least " + (STATS_MIN_INTERVAL_MS / 1000) + " second");
+                                    return 0;
+                                }
+                                statsIntervalMs = intervalMs;
+                            } else {
+                                logMsg(ERROR_MSG, "options.statsInterval (number) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "bannerIdleTimeout":
+                            if (luaState.type(-1) == LuaType.NUMBER) {
+                                bannerIdleTimeoutMs = (long) (luaState.toNumber(-1) * 1000);
+                                if (bannerIdleTimeoutMs < 0) {
+                                    logMsg(ERROR_MSG, "options.bannerIdleTimeout cannot be negative");
+                                    return 0;
+                                }
+                            } else {
+                                logMsg(ERROR_MSG, "options.bannerIdleTimeout (number) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "viewRestore":
+                            if (luaState.type(-1) == LuaType.STRING) {
+                                String viewRestore = luaState.toString(-1);
+                                if (viewRestore.equals(VIEW_RESTORE_TARGETED)) {
+                                    viewRestoreTargeted = true;
+                                } else if (viewRestore.equals(VIEW_RESTORE_ALL)) {
+                                    viewRestoreTargeted = false;
+                                } else {
+                                    logMsg(ERROR_MSG, "options.viewRestore must be '" + VIEW_RESTORE_ALL + "' or '" + VIEW_RESTORE_TARGETED + "', got '" + viewRestore + "'");
+                                    return 0;
+                                }
+                            } else {
+                                logMsg(ERROR_MSG, "options.viewRestore (string) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "detachedBanners":
+                            if (luaState.type(-1) == LuaType.BOOLEAN) {
+                                detachedBanners = luaState.toBoolean(-1);
+                            } else {
+                                logMsg(ERROR_MSG, "options.detachedBanners (boolean) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "simulator":
+                            if (luaState.type(-1) == LuaType.BOOLEAN) {
+                                simulator = luaState.toBoolean(-1) ? new CoronaAdmobSimulator(0, new CoronaAdmobSimulatorProfile()) : null;
+                            } else if (luaState.type(-1) == LuaType.TABLE) {
+                                simulator = parseSimulator(luaState, luaState.getTop());
+                                if (simulator == null) {
+                                    return 0;
+                                }
+                            } else {
+                                logMsg(ERROR_MSG, "options.simulator (boolean or table) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        default:
+                            logMsg(ERROR_MSG, "Invalid option '" + key + "'");
+                            return 0;
+                    }
+                }
+            } else {
+                logMsg(ERROR_MSG, "options table expected, got " + luaState.typeName(2));
+                return 0;
+            }
+
+            // declare final variables for inner loop
+            final CoronaActivity coronaActivity = CoronaEnvironment.getCoronaActivity();
+            final double fVideoAdVolume = videoAdVolume;
+            final double fInitTimeout = initTimeout;
+            final boolean fDisableMediationInitialization = disableMediationInitialization;
+
+            List<String> testDeviceIds = new ArrayList<String>();
+            testDeviceIds.add(AdRequest.DEVICE_ID_EMULATOR);
+            // generate Google Test ID for current device
+            if (testMode) {
+                //get MD5 hashed device id
+                @SuppressLint("HardwareIds") String android_id = Settings.Secure.getString(coronaActivity.getContentResolver(), Settings.Secure.ANDROID_ID);
+                String adMobDeviceID = md5(android_id).toUpperCase();
+
+                Log.i(CORONA_TAG, PLUGIN_NAME + ": Generated AdMob Test ID '" + adMobDeviceID + "'");
+                testDeviceIds.add(adMobDeviceID);
+            }
+            RequestConfiguration configuration = new RequestConfiguration.Builder().setTestDeviceIds(testDeviceIds).build();
+            MobileAds.setRequestConfiguration(configuration);
+
+
+            if (coronaActivity != null) {
+                coronaActivity.getApplicationContext().registerComponentCallbacks(memoryCallbacks);
+
+                // periodic metrics for listeners that log them, instead of polling getStats()
+                getSchedulerHandler().removeCallbacks(statsTicker);
+                if (statsIntervalMs > 0) {
+                    getSchedulerHandler().postDelayed(statsTicker, statsIntervalMs);
+                }
+
+                // there is no SDK to wait for, simulated loads can start right away
+                if (simulator != null) {
+                    logMsg(WARNING_MSG, "Ads are simulated, no ad requests will be sent");
+                    retryJitter.setSeed(simulator.seed);
+                    initEventSent.set(true);
+                    onSDKReady(false, null);
+                    return 0;
+                }
+
+                // give up waiting for the SDK after initTimeout, loads can start right away and the SDK catches up in the background
+                final Runnable initTimeoutCheck = new Runnable() {
+                    @Override
+                    public void run() {
+                        if (initEventSent.compareAndSet(false, true)) {
+                            logMsg(WARNING_MSG, "MobileAds initialization did not finish within " + fInitTimeout + " seconds, sending 'init' now");
+                            onSDKReady(true, null);
+                        }
+                    }
+                };
+                if (fInitTimeout > 0) {
+                    getSchedulerHandler().postDelayed(initTimeoutCheck, (long) (fInitTimeout * 1000));
+                }
+
+                // initialize ads SDK on its own thread, it can take seconds and must not hold up the UI thread
+                Thread initThread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            // adapters then initialize on the first request that needs them, instead of at startup
+                            if (fDisableMediationInitialization) {
+                                MobileAds.disableMediationAdapterInitialization(coronaActivity);
+                            }
+                            MobileAds.initialize(coronaActivity, new OnInitializationCompleteListener() {
+                                @Override
+                                public void onInitializationComplete(InitializationStatus initializationStatus) {
+                                    boolean traced = traceBegin("admob.onInitializationComplete");
+                                    getSchedulerHandler().removeCallbacks(initTimeoutCheck);
+
+                                    if (initEventSent.compareAndSet(false, true)) {
+                                        onSDKReady(false, initializationStatus);
+                                    } else {
+                                        // 'init' already went out on timeout, report the final status
+                                        CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_INITIALIZED, null);
+                                        event.set(CoronaAdmobEventField.ADAPTERS, new CoronaAdmobAdapterStatus(initializationStatus));
+                                        dispatchLuaEvent(event);
+                                    }
+                                    traceEnd(traced);
+                                }
+                            });
+                            MobileAds.setAppVolume((float) fVideoAdVolume);
+                        } catch (Exception e) {
+                            logMsg(ERROR_MSG, "MobileAds initialization failed " + e);
+                        }
+                    }
+                }, "AdmobInit");
+                initThread.start();
             }
 
             return 0;
         }
+
+        // reads options.simulator, returns null after logging an error
+        private CoronaAdmobSimulator parseSimulator(LuaState luaState, int index) {
+            long seed = 0;
+            luaState.getField(index, "seed");
+            if (luaState.type(-1) == LuaType.NUMBER) {
+                seed = (long) luaState.toNumber(-1);
+            } else if (luaState.type(-1) != LuaType.NIL) {
+                logMsg(ERROR_MSG, "options.simulator.seed (number) expected, got " + luaState.typeName(-1));
+                return null;
+            }
+            luaState.pop(1);
+
+            CoronaAdmobSimulatorProfile defaults = new CoronaAdmobSimulatorProfile();
+            if (!parseSimulatorProfile(luaState, index, "options.simulator", defaults, true)) {
+                return null;
+            }
+            CoronaAdmobSimulator result = new CoronaAdmobSimulator(seed, defaults);
+
+            // per adUnitId settings start from the top level ones
+            luaState.getField(index, "adUnits");
+            if (luaState.type(-1) == LuaType.TABLE) {
+                for (luaState.pushNil(); luaState.next(-2); luaState.pop(1)) {
+                    String adUnitId = luaState.toString(-2);
+                    String path = "options.simulator.adUnits['" + adUnitId + "']";
+                    if (luaState.type(-1) != LuaType.TABLE) {
+                        logMsg(ERROR_MSG, path + " (table) expected, got " + luaState.typeName(-1));
+                        return null;
+                    }
+                    CoronaAdmobSimulatorProfile profile = defaults.copy();
+                    if (!parseSimulatorProfile(luaState, luaState.getTop(), path, profile, false)) {
+                        return null;
+                    }
+                    result.adUnits.put(adUnitId, profile);
+                }
+            } else if (luaState.type(-1) != LuaType.NIL) {
+                logMsg(ERROR_MSG, "options.simulator.adUnits (table) expected, got " + luaState.typeName(-1));
+                return null;
+            }
+            luaState.pop(1);
+
+            return result;
+        }
+
+        // reads the fill, latency, error and expiry settings of the table at index into profile, returns false after logging an error
+        private boolean parseSimulatorProfile(LuaState luaState, int index, String path, CoronaAdmobSimulatorProfile profile, boolean topLevel) {
+            for (luaState.pushNil(); luaState.next(index); luaState.pop(1)) {
+                String key = luaState.toString(-2);
+
+                switch (key) {
+                    case "seed":
+                    case "adUnits":
+                        if (!topLevel) {
+                            logMsg(ERROR_MSG, "Invalid option '" + path + "." + key + "'");
+                            return false;
+                        }
+                        break;
+                    case "fillRate":
+                        if (luaState.type(-1) == LuaType.NUMBER) {
+                            profile.fillRate = luaState.toNumber(-1);
+                            if (profile.fillRate < 0 || profile.fillRate > 1) {
+                                logMsg(ERROR_MSG, path + ".fillRate must be between 0 and 1, got " + profile.fillRate);
+                                return false;
+                            }
+                        } else {
+                            logMsg(ERROR_MSG, path + ".fillRate (number) expected, got " + luaState.typeName(-1));
+                            return false;
+                        }
+                        break;
+                    case "latency":
+                        if (luaState.type(-1) == LuaType.NUMBER) {
+                            if (luaState.toNumber(-1) < 0) {
+                                logMsg(ERROR_MSG, path + ".latency cannot be negative");
+                                return false;
+                            }
+                            profile.setFixedLatency((long) (luaState.toNumber(-1) * 1000));
+                        } else if (luaState.type(-1) == LuaType.TABLE) {
+                            // a table replaces the inherited distribution as a whole
+                            profile.setFixedLatency(0);
+                            for (luaState.pushNil(); luaState.next(-2); luaState.pop(1)) {
+                                String latencyKey = luaState.toString(-2);
+                                if (luaState.type(-1) != LuaType.NUMBER || luaState.toNumber(-1) < 0) {
+                                    logMsg(ERROR_MSG, path + ".latency." + latencyKey + " (non-negative number) expected, got " + luaState.typeName(-1));
+                                    return false;
+                                }
+                                double latencyMs = luaState.toNumber(-1) * 1000;
+                                switch (latencyKey) {
+                                    case "min":
+                                        profile.latencyMinMs = (long) latencyMs;
+                                        break;
+                                    case "max":
+                                        profile.latencyMaxMs = (long) latencyMs;
+                                        break;
+                                    case "mean":
+                                        profile.latencyMeanMs = latencyMs;
+                                        break;
+                                    case "stdDev":
+                                        profile.latencyStdDevMs = latencyMs;
+                                        break;
+                                    default:
+                                        logMsg(ERROR_MSG, "Invalid option '" + path + ".latency." + latencyKey + "'");
+                                        return false;
+                                }
+                            }
+                            if (profile.latencyMeanMs < 0 && profile.latencyMaxMs < profile.latencyMinMs) {
+                                logMsg(ERROR_MSG, path + ".latency.max cannot be less than " + path + ".latency.min");
+                                return false;
+                            }
+                        } else {
+                            logMsg(ERROR_MSG, path + ".latency (number or table) expected, got " + luaState.typeName(-1));
+                            return false;
+                        }
+                        break;
+                    case "errorCodes":
+                        if (luaState.type(-1) == LuaType.TABLE) {
+                            int ncodes = luaState.length(-1);
+
+                            if (ncodes > 0) {
+                                profile.errorCodes = new int[ncodes];
+                                for (int i = 1; i <= ncodes; i++) {
+                                    // push array value onto stack
+                                    luaState.rawGet(-1, i);
+
+                                    if (luaState.type(-1) == LuaType.NUMBER) {
+                                        profile.errorCodes[i - 1] = (int) luaState.toNumber(-1);
+                                    } else {
+                                        logMsg(ERROR_MSG, path + ".errorCodes[" + i + "] (number) expected, got: " + luaState.typeName(-1));
+                                        return false;
+                                    }
+                                    luaState.pop(1);
+                                }
+                            } else {
+                                logMsg(ERROR_MSG, path + ".errorCodes table cannot be empty");
+                                return false;
+                            }
+                        } else {
+                            logMsg(ERROR_MSG, path + ".errorCodes (table) expected, got: " + luaState.typeName(-1));
+                            return false;
+                        }
+                        break;
+                    case "expiry":
+                        if (luaState.type(-1) == LuaType.NUMBER) {
+                            profile.expiryMs = (long) (luaState.toNumber(-1) * 1000);
+                            if (profile.expiryMs <= 0) {
+                                logMsg(ERROR_MSG, path + ".expiry must be greater than 0");
+                                return false;
+                            }
+                        } else {
+                            logMsg(ERROR_MSG, path + ".expiry (number) expected, got " + luaState.typeName(-1));
+                            return false;
+                        }
+                        break;
+                    case "showDuration":
+                        if (luaState.type(-1) == LuaType.NUMBER) {
+                            profile.showDurationMs = (long) (luaState.toNumber(-1) * 1000);
+                            if (profile.showDurationMs < 0) {
+                                logMsg(ERROR_MSG, path + ".showDuration cannot be negative");
+                                return false;
+                            }
+                        } else {
+                            logMsg(ERROR_MSG, path + ".showDuration (number) expected, got " + luaState.typeName(-1));
+                            return false;
+                        }
+                        break;
+                    default:
+                        logMsg(ERROR_MSG, "Invalid option '" + path + "." + key + "'");
+                        return false;
+                }
+            }
+            return true;
+        }
     }
 
 
@@ -660,11 +1827,6 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
             return "load";
         }
 
-        private AdSize getAdSize(CoronaActivity activity) {
-            return AdSize.getCurrentOrientationAnchoredAdaptiveBannerAdSize(activity, AdSize.FULL_WIDTH);
-        }
-
-
         /**
          * This method is called when the Lua function is called.
          * <p>
@@ -691,12 +1853,22 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
 
             String adType;
             String adUnitId = null;
+            ArrayList<String> adUnitIds = null;
             Boolean childSafe = null;
             String maxAdContentRating = null;
             boolean designedForFamilies = false;
             boolean localTestMode = false;
             ArrayList<String> keywords = new ArrayList<>();
             Boolean hasUserConsent = null;
+            int poolSize = 0;
+            Boolean refreshBeforeExpiry = null;
+            Boolean autoRefill = null;
+            String strategy = null;
+            int raceLimit = 0;
+            double raceGrace = -1;
+            Boolean inlineAdaptive = null;
+            Boolean preloadRotation = null;
+            Boolean doubleBuffer = null;
 
             // get the ad type
             if (luaState.type(1) == LuaType.STRING) {
@@ -721,6 +1893,69 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
                                 return 0;
                             }
                             break;
+                        case "adUnitIds":
+                            if (luaState.type(-1) == LuaType.TABLE) {
+                                int nunits = luaState.length(-1);
+
+                                if (nunits > 0) {
+                                    adUnitIds = new ArrayList<>();
+                                    for (int i = 1; i <= nunits; i++) {
+                                        // push array value onto stack
+                                        luaState.rawGet(-1, i);
+
+                                        if (luaState.type(-1) == LuaType.STRING) {
+                                            adUnitIds.add(luaState.toString(-1));
+                                        } else {
+                                            logMsg(ERROR_MSG, "options.adUnitIds[" + i + "] (string) expected, got: " + luaState.typeName(-1));
+                                            return 0;
+                                        }
+                                        luaState.pop(1);
+                                    }
+                                } else {
+                                    logMsg(ERROR_MSG, "options.adUnitIds table cannot be empty");
+                                    return 0;
+                                }
+                            } else {
+                                logMsg(ERROR_MSG, "options.adUnitIds (table) expected, got: " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "strategy":
+                            if (luaState.type(-1) == LuaType.STRING) {
+                                strategy = luaState.toString(-1);
+                                if (!strategy.equals(STRATEGY_WATERFALL) && !strategy.equals(STRATEGY_RACE)) {
+                                    logMsg(ERROR_MSG, "options.strategy must be '" + STRATEGY_WATERFALL + "' or '" + STRATEGY_RACE + "', got '" + strategy + "'");
+                                    return 0;
+                                }
+                            } else {
+                                logMsg(ERROR_MSG, "options.strategy (string) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "raceLimit":
+                            if (luaState.type(-1) == LuaType.NUMBER) {
+                                raceLimit = (int) luaState.toNumber(-1);
+                                if (raceLimit < 1 || raceLimit > MAX_RACE_LIMIT) {
+                                    logMsg(ERROR_MSG, "options.raceLimit must be between 1 and " + MAX_RACE_LIMIT + ", got " + raceLimit);
+                                    return 0;
+                                }
+                            } else {
+                                logMsg(ERROR_MSG, "options.raceLimit (number) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "raceGrace":
+                            if (luaState.type(-1) == LuaType.NUMBER) {
+                                raceGrace = luaState.toNumber(-1);
+                                if (raceGrace < 0) {
+                                    logMsg(ERROR_MSG, "options.raceGrace cannot be negative");
+                                    return 0;
+                                }
+                            } else {
+                                logMsg(ERROR_MSG, "options.raceGrace (number) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
                         case "childSafe":
                             if (luaState.type(-1) == LuaType.BOOLEAN) {
                                 childSafe = luaState.toBoolean(-1);
@@ -802,34 +2037,129 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
                                 return 0;
                             }
                             break;
-                        default:
-                            logMsg(ERROR_MSG, "Invalid option '" + key + "'");
-                            return 0;
-                    }
-                }
-            } else {
-                logMsg(ERROR_MSG, "options table expected, got " + luaState.typeName(2));
-                return 0;
-            }
-
-            // check required params
-            if (adUnitId == null) {
-                logMsg(ERROR_MSG, "options.adUnitId is required");
-                return 0;
-            }
-
-            // check valid ad type
-            if (!validAdTypes.contains(adType)) {
-                logMsg(ERROR_MSG, "Invalid adType '" + adType + "'");
-                return 0;
-            }
-
-            // initialize request object
-            AdRequest.Builder builder = new AdRequest.Builder();
-
-            Bundle extras = new Bundle();
-
-            if (designedForFamilies) {
+                        case "poolSize":
+                            if (luaState.type(-1) == LuaType.NUMBER) {
+                                poolSize = (int) luaState.toNumber(-1);
+                                if (poolSize < 1 || poolSize > MAX_POOL_SIZE) {
+                                    logMsg(ERROR_MSG, "options.poolSize must be between 1 and " + MAX_POOL_SIZE + ", got " + poolSize);
+                                    return 0;
+                                }
+                            } else {
+                                logMsg(ERROR_MSG, "options.poolSize (number) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "refreshBeforeExpiry":
+                            if (luaState.type(-1) == LuaType.BOOLEAN) {
+                                refreshBeforeExpiry = luaState.toBoolean(-1);
+                            } else {
+                                logMsg(ERROR_MSG, "options.refreshBeforeExpiry (boolean) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "autoRefill":
+                            if (luaState.type(-1) == LuaType.BOOLEAN) {
+                                autoRefill = luaState.toBoolean(-1);
+                            } else {
+                                logMsg(ERROR_MSG, "options.autoRefill (boolean) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "inlineAdaptive":
+                            if (luaState.type(-1) == LuaType.BOOLEAN) {
+                                inlineAdaptive = luaState.toBoolean(-1);
+                            } else {
+                                logMsg(ERROR_MSG, "options.inlineAdaptive (boolean) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "preloadRotation":
+                            if (luaState.type(-1) == LuaType.BOOLEAN) {
+                                preloadRotation = luaState.toBoolean(-1);
+                            } else {
+                                logMsg(ERROR_MSG, "options.preloadRotation (boolean) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        case "doubleBuffer":
+                            if (luaState.type(-1) == LuaType.BOOLEAN) {
+                                doubleBuffer = luaState.toBoolean(-1);
+                            } else {
+                                logMsg(ERROR_MSG, "options.doubleBuffer (boolean) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                            break;
+                        default:
+                            logMsg(ERROR_MSG, "Invalid option '" + key + "'");
+                            return 0;
+                    }
+                }
+            } else {
+                logMsg(ERROR_MSG, "options table expected, got " + luaState.typeName(2));
+                return 0;
+            }
+
+            // check required params
+            if (adUnitId == null && adUnitIds == null) {
+                logMsg(ERROR_MSG, "options.adUnitId is required");
+                return 0;
+            }
+            if (adUnitId != null && adUnitIds != null) {
+                logMsg(ERROR_MSG, "options.adUnitId and options.adUnitIds cannot be used together");
+                return 0;
+            }
+
+            // check valid ad type
+            if (!validAdTypes.contains(adType)) {
+                logMsg(ERROR_MSG, "Invalid adType '" + adType + "'");
+                return 0;
+            }
+
+            if (poolSize > 0 && adType.equals(TYPE_BANNER)) {
+                logMsg(WARNING_MSG, "options.poolSize is ignored for banners");
+            }
+
+            if ((inlineAdaptive != null || preloadRotation != null || doubleBuffer != null) && !adType.equals(TYPE_BANNER)) {
+                logMsg(WARNING_MSG, "options.inlineAdaptive, options.preloadRotation and options.doubleBuffer are only used for banners");
+            }
+
+            if (adUnitIds != null && adType.equals(TYPE_BANNER)) {
+                logMsg(ERROR_MSG, "options.adUnitIds is not supported for banners");
+                return 0;
+            }
+
+            boolean isRace = STRATEGY_RACE.equals(strategy);
+            if ((strategy != null || raceLimit > 0 || raceGrace >= 0) && adUnitIds == null) {
+                logMsg(ERROR_MSG, "options.strategy, options.raceLimit and options.raceGrace require options.adUnitIds");
+                return 0;
+            }
+            if ((raceLimit > 0 || raceGrace >= 0) && !isRace) {
+                logMsg(WARNING_MSG, "options.raceLimit and options.raceGrace are ignored unless options.strategy is '" + STRATEGY_RACE + "'");
+            }
+
+            // reject loads while repeated no-fills keep the circuit breaker open (units of a waterfall are checked one by one)
+            CoronaAdmobAdSlot slot = registry.getSlot(adType, adUnitId);
+            if (loadRetryEnabled && slot != null && slot.retryState.isCircuitOpen()) {
+                CoronaAdmobRetryState retryState = slot.retryState;
+                logMsg(WARNING_MSG, "Too many no-fills for adUnitId '" + adUnitId + "', load() is paused for " + retryState.getCircuitRemainingMs() / 1000 + " seconds");
+
+                CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_FAILED, adType);
+                event.set(CoronaAdmobEventField.RESPONSE, RESPONSE_CIRCUIT_OPEN);
+                event.set(CoronaAdmobEventField.IS_ERROR, true);
+                event.set(CoronaAdmobEventField.ADUNIT_ID, adUnitId);
+                event.set(CoronaAdmobEventField.ERROR_CATEGORY, ERROR_CATEGORY_NO_FILL);
+                event.set(CoronaAdmobEventField.RETRY_IN, retryState.getCircuitRemainingMs() / 1000.0);
+                event.set(CoronaAdmobEventField.CIRCUIT_OPEN, true);
+                dispatchLuaEvent(event);
+                return 0;
+            }
+
+            // initialize request object
+            AdRequest.Builder builder = new AdRequest.Builder();
+
+            Bundle extras = new Bundle();
+
+            if (designedForFamilies) {
                 extras.putBoolean("is_designed_for_families", true);
             }
             if (hasUserConsent != null && !hasUserConsent) {
@@ -859,111 +2189,106 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
             final CoronaActivity coronaActivity = CoronaEnvironment.getCoronaActivity();
             final String fAdType = adType;
             final String fAdUnitId = adUnitId;
+            final ArrayList<String> fAdUnitIds = adUnitIds;
+            final int fParallel = isRace ? (raceLimit > 0 ? raceLimit : DEFAULT_RACE_LIMIT) : 1;
+            final long fGraceMs = isRace && raceGrace > 0 ? (long) (raceGrace * 1000) : 0;
             final AdRequest fRequest = request;
+            final int fPoolSize = poolSize;
+            final Boolean fRefreshBeforeExpiry = refreshBeforeExpiry;
+            final Boolean fAutoRefill = autoRefill;
+            final Boolean fInlineAdaptive = inlineAdaptive;
+            final Boolean fPreloadRotation = preloadRotation;
+            final Boolean fDoubleBuffer = doubleBuffer;
 
             if (coronaActivity != null) {
-                coronaActivity.runOnUiThread(new Runnable() {
+                coronaActivity.runOnUiThread(traceRunnable("admob.load.ui", new Runnable() {
                     @Override
                     public void run() {
                         try {
                             // load specified ad type
                             switch (fAdType) {
                                 case TYPE_INTERSTITIAL:
-                                    // initialize object and set delegate
-                                    CoronaAdmobInterstitialLoadDelegate interstitialLoadDelegate = new CoronaAdmobInterstitialLoadDelegate(fAdUnitId);
-                                    InterstitialAd.load(coronaActivity, fAdUnitId, fRequest, interstitialLoadDelegate);
-
-                                    // save for future use
-                                    admobObjects.put(TYPE_INTERSTITIAL, fAdUnitId);
-                                    admobObjects.put(fAdUnitId, interstitialLoadDelegate);
-                                    break;
                                 case TYPE_REWARDEDVIDEO:
-                                    // initialize object and set delegate
-                                    CoronaAdmobRewardedLoadDelegate
-                                            rewardedLoadDelegate = new CoronaAdmobRewardedLoadDelegate(fAdUnitId);
-                                    RewardedAd.load(coronaActivity, fAdUnitId, fRequest, rewardedLoadDelegate);
-                                    // save for future use
-                                    admobObjects.put(TYPE_REWARDEDVIDEO, fAdUnitId);
-                                    admobObjects.put(fAdUnitId, rewardedLoadDelegate);
-                                    break;
                                 case TYPE_REWARDEDINTERSTITIAL:
-                                    // initialize object and set delegate
-                                    CoronaAdmobRewardedInterstitialLoadDelegate
-                                            rewardedInterstitialLoadDelegate = new CoronaAdmobRewardedInterstitialLoadDelegate(fAdUnitId);
-                                    RewardedInterstitialAd.load(coronaActivity, fAdUnitId, fRequest, rewardedInterstitialLoadDelegate);
-                                    // save for future use
-                                    admobObjects.put(TYPE_REWARDEDINTERSTITIAL, fAdUnitId);
-                                    admobObjects.put(fAdUnitId, rewardedInterstitialLoadDelegate);
-                                    break;
                                 case TYPE_APPOPEN:
-                                    // initialize object and set delegate
-                                    CoronaAdmobAppOpenLoadDelegate
-                                            appOpenLoadDelegate = new CoronaAdmobAppOpenLoadDelegate(fAdUnitId);
-                                    AppOpenAd.load(coronaActivity, fAdUnitId, fRequest, appOpenLoadDelegate);
+                                    if (fAdUnitIds != null) {
+                                        // run the waterfall or race natively, the unit that fills becomes the default
+                                        new CoronaAdmobLoadOperation(fAdType, fAdUnitIds, fRequest, fPoolSize, fRefreshBeforeExpiry, fAutoRefill, fParallel, fGraceMs).start(coronaActivity);
+                                        break;
+                                    }
+
+                                    // keep the existing pool so ads that are already filled survive a new load() call
+                                    CoronaAdmobFullScreenPool pool = obtainPool(fAdType, fAdUnitId);
+                                    pool.configure(fPoolSize, fRefreshBeforeExpiry, fAutoRefill, fRequest);
+
                                     // save for future use
-                                    admobObjects.put(TYPE_APPOPEN, fAdUnitId);
-                                    admobObjects.put(fAdUnitId, appOpenLoadDelegate);
+                                    registry.setDefaultAdUnitId(fAdType, fAdUnitId);
+
+                                    pool.fill(coronaActivity);
                                     break;
                                 case TYPE_BANNER:
-                                    // calculate the Corona->device coordinate ratio
-                                    // we use Corona's built-in point conversion to take advantage of any device specific logic in the Corona core
-                                    // we also need to re-calculate this value on every load as the ratio changes between orientation changes
-                                    Point point1 = coronaActivity.convertCoronaPointToAndroidPoint(0, 0);
-                                    Point point2 = coronaActivity.convertCoronaPointToAndroidPoint(1000, 1000);
-                                    double yRatio = 1.0;
-                                    if (point1 != null && point2 != null) {
-                                        yRatio = (double) (point2.y - point1.y) / 1000.0;
+                                    // the Corona->device coordinate ratio is cached and only recomputed after a configuration change
+                                    updateLayoutMetrics(coronaActivity);
+
+                                    CoronaAdmobBannerSlot bannerSlot = registry.getBanner(fAdUnitId);
+                                    if (bannerSlot == null) {
+                                        bannerSlot = new CoronaAdmobBannerSlot(fAdUnitId);
+                                        registry.putBanner(bannerSlot);
                                     }
-                                    admobObjects.put(Y_RATIO_KEY, yRatio);
-
-                                    AdView banner = new AdView(coronaActivity);
-                                    banner.setAdUnitId(fAdUnitId);
-                                    banner.setAdSize(getAdSize(coronaActivity));
-                                    banner.setAdListener(new CoronaAdmobBannerDelegate(banner));
-                                    banner.setVisibility(View.INVISIBLE);
-
-                                    // set layout params
-                                    FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(
-                                            FrameLayout.LayoutParams.WRAP_CONTENT,
-                                            FrameLayout.LayoutParams.WRAP_CONTENT
-                                    );
-
-                                    // we need to add the smart banner to the hierarchy temporarily in order for it to get the proper size when loading
-                                    // we'll remove this later in show() to set the final position
-                                    params.gravity = Gravity.BOTTOM | Gravity.CENTER;
-                                    coronaActivity.getOverlayView().addView(banner, params);
-
-                                    // remove old banner
-                                    try {
-                                        AdView oldBanner = (AdView) admobObjects.get(fAdUnitId);
-                                        if (oldBanner != null) {
-                                            oldBanner.setVisibility(View.INVISIBLE);
-                                            //noinspection ConstantConditions
-                                            oldBanner.setAdListener(null);
-                                            coronaActivity.getOverlayView().removeView(oldBanner);
-                                            oldBanner.destroy();
-                                        }
-                                    } catch (ClassCastException e) {
-                                        logMsg(ERROR_MSG, "adUnitId '" + fAdUnitId + "' is not a banner");
-                                        return;
-                                    } catch (Exception e) {
-                                        logMsg(ERROR_MSG, "Unknown error while processing banner with adUnitId '" + fAdUnitId + "'");
-                                        return;
+
+                                    if (fInlineAdaptive != null) {
+                                        bannerSlot.inlineAdaptive = fInlineAdaptive;
+                                    }
+                                    if (fPreloadRotation != null) {
+                                        bannerSlot.preloadRotation = fPreloadRotation;
+                                    }
+                                    if (fDoubleBuffer != null) {
+                                        bannerSlot.doubleBuffer = fDoubleBuffer;
                                     }
 
-                                    // save for future use
-                                    admobObjects.put(TYPE_BANNER, fAdUnitId);
-                                    admobObjects.put(fAdUnitId, banner);
+                                    AdSize adSize = getBannerAdSize(coronaActivity, registry.orientation, bannerSlot.inlineAdaptive);
+                                    AdView banner = bannerSlot.banner;
+                                    if (bannerSlot.doubleBuffer && banner != null && banner.getVisibility() == View.VISIBLE
+                                            && ((CoronaAdmobBannerDelegate) banner.getAdListener()).isLoaded) {
+                                        // the banner on screen stays until its replacement has loaded
+                                        loadPendingBanner(coronaActivity, bannerSlot, adSize, fRequest);
+                                        registry.setDefaultAdUnitId(TYPE_BANNER, fAdUnitId);
+                                    } else {
+                                        bannerSlot.destroyPendingBanner();
+                                        if (!bannerSlot.doubleBuffer) {
+                                            bannerSlot.keepSpare(null);
+                                        }
 
-                                    // load a banner
-                                    banner.loadAd(fRequest);
+                                        // reuse the view of this adUnitId while its size still fits, a new one repeats the whole WebView setup
+                                        if (banner != null && !adSize.equals(banner.getAdSize())) {
+                                            bannerSlot.destroyBanner();
+                                            banner = null;
+                                        }
+                                        CoronaAdmobBannerDelegate bannerDelegate = prepareBannerView(coronaActivity, bannerSlot, banner, adSize, fRequest);
+                                        banner = bannerDelegate.currentBanner;
+
+                                        // save for future use
+                                        bannerSlot.banner = banner;
+                                        bannerSlot.publishState(false);
+                                        registry.setDefaultAdUnitId(TYPE_BANNER, fAdUnitId);
+
+                                        // load a banner
+                                        bannerDelegate.loadAd();
+                                    }
+
+                                    // keep a banner for the other orientation ready, a rotation then swaps the two without a new request
+                                    if (bannerSlot.preloadRotation) {
+                                        loadRotationBanner(coronaActivity, bannerSlot, fRequest);
+                                    } else {
+                                        bannerSlot.destroyRotationBanner();
+                                    }
                                     break;
                             }
                         } catch (Exception e) {
                             logMsg(ERROR_MSG, "Unknown error while loading banner with adUnitId '" + fAdUnitId + "'");
                         }
                     }
-                });
+                }));
             }
 
             return 0;
@@ -1056,60 +2381,40 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
             final String fAdUnitIdParam = adUnitIdParam;
 
             boolean isLoaded = false;
+            int available = 0;
             final String fAdUnitId;
             if (fAdUnitIdParam != null) {
                 fAdUnitId = fAdUnitIdParam;
             } else {
-                fAdUnitId = (String) admobObjects.get(fAdType);
+                fAdUnitId = registry.getDefaultAdUnitId(fAdType);
             }
             if (fAdUnitId != null) {
 
                 switch (fAdType) {
                     case TYPE_INTERSTITIAL:
-                        CoronaAdmobInterstitialLoadDelegate interstitial = (CoronaAdmobInterstitialLoadDelegate) admobObjects.get(fAdUnitId);
-                        isLoaded = interstitial != null && interstitial.interstitialAd != null;
-                        break;
                     case TYPE_REWARDEDVIDEO:
-                        CoronaAdmobRewardedLoadDelegate rewardedAd = (CoronaAdmobRewardedLoadDelegate) admobObjects.get(fAdUnitId);
-                        isLoaded = rewardedAd != null && rewardedAd.rewardedAd != null;
-                        break;
                     case TYPE_REWARDEDINTERSTITIAL:
-                        CoronaAdmobRewardedInterstitialLoadDelegate rewardedInterstitialAd = (CoronaAdmobRewardedInterstitialLoadDelegate) admobObjects.get(fAdUnitId);
-                        isLoaded = rewardedInterstitialAd != null && rewardedInterstitialAd.rewardedInterstitialAd != null;
-                        break;
                     case TYPE_APPOPEN:
-                        CoronaAdmobAppOpenLoadDelegate appOpenAd = (CoronaAdmobAppOpenLoadDelegate) admobObjects.get(fAdUnitId);
-                        isLoaded = appOpenAd != null && appOpenAd.appOpenAd != null;
+                        CoronaAdmobFullScreenPool pool = registry.getPool(fAdType, fAdUnitId);
+                        if (pool != null) {
+                            available = pool.size();
+                        }
+                        isLoaded = available > 0;
                         break;
                     case TYPE_BANNER:
-                        try {
-                            // since we're returning a value to Lua, we need to implement a FutureTask
-                            FutureTask<Boolean> isLoadedTask = new FutureTask<>(new Callable<Boolean>() {
-                                @Override
-                                public Boolean call() {
-                                    AdView banner = (AdView) admobObjects.get(fAdUnitId);
-                                    if (banner != null) {
-                                        CoronaAdmobBannerDelegate bannerDelegate = (CoronaAdmobBannerDelegate) banner.getAdListener();
-                                        return bannerDelegate.isLoaded;
-                                    }
-                                    return false;
-                                }
-                            });
-
-                            // Run the task on the ui thread
-                            coronaActivity.runOnUiThread(isLoadedTask);
-
-                            // IMPORTANT! must use get() so FutureTask will block until it returns a value
-                            isLoaded = isLoadedTask.get(2000, TimeUnit.MILLISECONDS);
-                        } catch (Exception ex) {
-                            ex.printStackTrace();
+                        // read the snapshot published by the UI thread
+                        CoronaAdmobBannerSlot slot = registry.getBanner(fAdUnitId);
+                        if (slot != null) {
+                            isLoaded = slot.state.loaded;
                         }
+                        available = isLoaded ? 1 : 0;
                         break;
                 }
             }
             luaState.pushBoolean(isLoaded);
+            luaState.pushNumber(available);
 
-            return 1;
+            return 2;
         }
     }
 
@@ -1297,17 +2602,23 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
             final String fBgColor = bgColor;
             final String fadUnitIdParam = adUnitIdParam;
             final int fYOffset = (int) yOffset;
+            final long fShowRequestTime = SystemClock.elapsedRealtime();
 
             if (coronaActivity != null) {
-                coronaActivity.runOnUiThread(new Runnable() {
+                if (fAdType.equals(TYPE_BANNER)) {
+                    queueBannerLayout(coronaActivity, new CoronaAdmobBannerLayoutOp(true, fadUnitIdParam, fYAlign, fYOffset, fBgColor, fShowRequestTime));
+                    return 0;
+                }
+
+                coronaActivity.runOnUiThread(traceRunnable("admob.show.ui", new Runnable() {
                     @Override
                     public void run() {
                         String adUnitId;
                         if (fadUnitIdParam != null) {
                             adUnitId = fadUnitIdParam;
-                            admobObjects.put(fAdType, adUnitId); // save setting as default value
+                            registry.setDefaultAdUnitId(fAdType, adUnitId); // save setting as default value
                         } else {
-                            adUnitId = (String) admobObjects.get(fAdType);
+                            adUnitId = registry.getDefaultAdUnitId(fAdType);
                         }
 
                         if (adUnitId == null) {
@@ -1318,153 +2629,31 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
                         // show specified ad type
                         switch (fAdType) {
                             case TYPE_INTERSTITIAL:
-                                CoronaAdmobInterstitialLoadDelegate interstitial = (CoronaAdmobInterstitialLoadDelegate) admobObjects.get(adUnitId);
-                                if ((interstitial != null) && interstitial.interstitialAd != null) {
-                                    CoronaAdmobFullScreenDelegate delegate = new CoronaAdmobFullScreenDelegate(TYPE_INTERSTITIAL, interstitial.adUnitId);
-                                    interstitial.interstitialAd.setFullScreenContentCallback(delegate);
-                                    delegate.coronaAdOpened();
-                                    interstitial.interstitialAd.show(coronaActivity);
-                                    interstitial.interstitialAd = null;
-                                } else {
-                                    logMsg(WARNING_MSG, "Interstitial not loaded");
-                                }
-                                break;
                             case TYPE_REWARDEDVIDEO:
-                                CoronaAdmobRewardedLoadDelegate rewardedAd = (CoronaAdmobRewardedLoadDelegate) admobObjects.get(adUnitId);
-                                if ((rewardedAd != null) && rewardedAd.rewardedAd != null) {
-                                    CoronaAdmobFullScreenDelegate delegate = new CoronaAdmobFullScreenDelegate(TYPE_REWARDEDVIDEO, adUnitId);
-                                    delegate.coronaAdOpened();
-                                    rewardedAd.rewardedAd.setFullScreenContentCallback(delegate);
-                                    rewardedAd.rewardedAd.show(coronaActivity, delegate);
-                                    rewardedAd.rewardedAd = null;
-                                } else {
-                                    logMsg(WARNING_MSG, "Rewarded Video not loaded");
-                                }
-                                break;
                             case TYPE_REWARDEDINTERSTITIAL:
-                                CoronaAdmobRewardedInterstitialLoadDelegate rewardedInterstitialAd = (CoronaAdmobRewardedInterstitialLoadDelegate) admobObjects.get(adUnitId);
-                                if ((rewardedInterstitialAd != null) && rewardedInterstitialAd.rewardedInterstitialAd != null) {
-                                    CoronaAdmobFullScreenDelegate delegate = new CoronaAdmobFullScreenDelegate(TYPE_REWARDEDINTERSTITIAL, adUnitId);
-                                    delegate.coronaAdOpened();
-                                    rewardedInterstitialAd.rewardedInterstitialAd.setFullScreenContentCallback(delegate);
-                                    rewardedInterstitialAd.rewardedInterstitialAd.show(coronaActivity, delegate);
-                                    rewardedInterstitialAd.rewardedInterstitialAd = null;
-                                } else {
-                                    logMsg(WARNING_MSG, "Rewarded Interstitial not loaded");
-                                }
-                                break;
                             case TYPE_APPOPEN:
-                                CoronaAdmobAppOpenLoadDelegate appOpenAd = (CoronaAdmobAppOpenLoadDelegate) admobObjects.get(adUnitId);
-                                if ((appOpenAd != null) && appOpenAd.appOpenAd != null) {
-                                    CoronaAdmobFullScreenDelegate delegate = new CoronaAdmobFullScreenDelegate(TYPE_APPOPEN, adUnitId);
-                                    delegate.coronaAdOpened();
-                                    appOpenAd.appOpenAd.setFullScreenContentCallback(delegate);
-                                    appOpenAd.appOpenAd.show(coronaActivity);
-                                    appOpenAd.appOpenAd = null;
-                                } else {
-                                    logMsg(WARNING_MSG, "Rewarded Interstitial not loaded");
-                                }
-                                break;
-                            case TYPE_BANNER:
-                                AdView banner = (AdView) admobObjects.get(adUnitId);
-
-                                if ((banner == null) || (!((CoronaAdmobBannerDelegate) banner.getAdListener()).isLoaded)) {
-                                    logMsg(WARNING_MSG, "Banner not loaded");
-                                    return;
-                                }
-
-                                if (banner.getVisibility() == View.VISIBLE) {
-                                    logMsg(WARNING_MSG, "Banner already visible");
-                                    return;
-                                }
-
-                                // remove old layout
-                                if (banner.getParent() != null) {
-                                    coronaActivity.getOverlayView().removeView(banner);
+                                // hand out the oldest ad in the pool
+                                CoronaAdmobFullScreenPool pool = registry.getPool(fAdType, adUnitId);
+                                CoronaAdmobFullScreenAd ad = null;
+                                if (pool != null) {
+                                    ad = pool.poll();
                                 }
-
-                                // set final layout params
-                                FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(
-                                        FrameLayout.LayoutParams.WRAP_CONTENT,
-                                        FrameLayout.LayoutParams.WRAP_CONTENT
-                                );
-
-                                if (fYAlign != null) {
-                                    params.gravity = Gravity.TOP | Gravity.CENTER;
-
-                                    if (fYAlign.equals(ALIGN_BOTTOM)) {
-                                        params.gravity = Gravity.BOTTOM | Gravity.CENTER;
-                                    }
+                                if (ad != null) {
+                                    ad.show(coronaActivity, new CoronaAdmobFullScreenDelegate(pool, fShowRequestTime));
                                 } else {
-                                    double newBannerY = ceil(fYOffset * (double) admobObjects.get(Y_RATIO_KEY));
-                                    Display display = coronaActivity.getWindowManager().getDefaultDisplay();
-                                    int orientation = coronaActivity.getResources().getConfiguration().orientation;
-                                    int orientedHeight;
-
-                                    Point size = new Point();
-                                    display.getSize(size);
-
-                                    orientedHeight = (orientation == ORIENTATION_PORTRAIT) ? size.y : size.x;
-
-                                    AdSize bannerSize = banner.getAdSize();
-                                    if (bannerSize != null) {
-                                        // make sure the banner frame is visible.
-                                        // adjust it if the user has specified 'y' which will render it partially off-screen
-                                        if (newBannerY >= 0) { // offset from top
-                                            if (newBannerY + bannerSize.getHeight() > orientedHeight) {
-                                                logMsg(WARNING_MSG, "Banner y position off screen. Adjusting position.");
-                                                params.gravity = Gravity.BOTTOM | Gravity.CENTER;
-                                            } else {
-                                                params.gravity = Gravity.TOP | Gravity.CENTER;
-                                                params.topMargin = (int) newBannerY;
-                                            }
-                                        } else {
-                                            if (orientedHeight - bannerSize.getHeight() + newBannerY < 0) {
-                                                logMsg(WARNING_MSG, "Banner y position off screen. Adjusting position.");
-                                                params.gravity = Gravity.TOP | Gravity.CENTER;
-                                            } else {
-                                                params.gravity = Gravity.BOTTOM | Gravity.CENTER;
-                                                params.bottomMargin = Math.abs((int) newBannerY);
-                                            }
-                                        }
-                                    } else {
-                                        params.gravity = Gravity.BOTTOM | Gravity.CENTER;
-                                    }
-                                }
-
-                                coronaActivity.getOverlayView().addView(banner, params);
-
-                                if (fBgColor != null) {
-                                    banner.setBackgroundColor(Color.parseColor(fBgColor));
+                                    logMsg(WARNING_MSG, fAdType + " not loaded");
                                 }
-                                banner.setVisibility(View.VISIBLE);
-                                banner.bringToFront();
-
-                                // send Corona Lua event
-                                // AdMob has no 'displayed' event in their Android banner listener so we fake it here
-                                JSONObject data = new JSONObject();
-                                try {
-                                    data.put(DATA_ADUNIT_ID_KEY, banner.getAdUnitId());
-                                } catch (Exception e) {
-                                    e.printStackTrace();
-                                }
-
-                                Map<String, Object> coronaEvent = new HashMap<>();
-                                coronaEvent.put(EVENT_PHASE_KEY, PHASE_DISPLAYED);
-                                coronaEvent.put(EVENT_TYPE_KEY, TYPE_BANNER);
-                                coronaEvent.put(EVENT_DATA_KEY, data.toString());
-                                dispatchLuaEvent(coronaEvent);
                                 break;
                         }
                     }
-                });
+                }));
             }
 
             return 0;
         }
     }
 
-    // [Lua] hide()
+    // [Lua] hide( [options] )
     private class Hide implements NamedJavaFunction {
         /**
          * Gets the name of the Lua function as it would appear in the Lua script.
@@ -1487,7 +2676,7 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
          */
         @Override
         public int invoke(final LuaState luaState) {
-            functionSignature = "admob.hide()";
+            functionSignature = "admob.hide( [options] )";
 
             if (!isSDKInitialized()) {
                 return 0;
@@ -1495,38 +2684,43 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
 
             // check number of args
             int nargs = luaState.getTop();
-            if (nargs != 0) {
-                logMsg(ERROR_MSG, "Expected no arguments, got " + nargs);
+            if (nargs > 1) {
+                logMsg(ERROR_MSG, "Expected 0 or 1 argument, got " + nargs);
                 return 0;
             }
 
-            // declare final variables for inner loop
-            final CoronaActivity coronaActivity = CoronaEnvironment.getCoronaActivity();
+            String adUnitIdParam = null;
 
-            if (coronaActivity != null) {
-                coronaActivity.runOnUiThread(new Runnable() {
-                    @Override
-                    public void run() {
-                        String adUnitId = (String) admobObjects.get(TYPE_BANNER);
-                        if (adUnitId == null) {
-                            logMsg(WARNING_MSG, "Banner not loaded");
-                            return;
-                        }
+            // check for options table
+            if (!luaState.isNoneOrNil(1)) {
+                if (luaState.type(1) == LuaType.TABLE) {
+                    // traverse and validate all the options
+                    for (luaState.pushNil(); luaState.next(1); luaState.pop(1)) {
+                        String key = luaState.toString(-2);
 
-                        AdView banner = (AdView) admobObjects.get(adUnitId);
-                        if (banner == null || banner.getVisibility() != View.VISIBLE) {
-                            logMsg(WARNING_MSG, "Banner not visible");
-                            return;
+                        if (key.equals("adUnitId")) {
+                            if (luaState.type(-1) == LuaType.STRING) {
+                                adUnitIdParam = luaState.toString(-1);
+                            } else {
+                                logMsg(ERROR_MSG, "options.adUnitId (string) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                        } else {
+                            logMsg(ERROR_MSG, "Invalid option '" + key + "'");
+                            return 0;
                         }
+                    }
+                } else {
+                    logMsg(ERROR_MSG, "options table expected, got " + luaState.typeName(1));
+                    return 0;
+                }
+            }
 
-                        // hide banner
-                        banner.setVisibility(View.INVISIBLE);
-                        coronaActivity.getOverlayView().removeView(banner);
+            // declare final variables for inner loop
+            final CoronaActivity coronaActivity = CoronaEnvironment.getCoronaActivity();
 
-                        // use AdMob onAdClosed to send a 'hidden' event
-                        banner.getAdListener().onAdClosed();
-                    }
-                });
+            if (coronaActivity != null) {
+                queueBannerLayout(coronaActivity, new CoronaAdmobBannerLayoutOp(false, adUnitIdParam, null, 0, null, SystemClock.elapsedRealtime()));
             }
 
             return 0;
@@ -1598,48 +2792,19 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
 
             double height = 0;
 
-            final CoronaActivity coronaActivity = CoronaEnvironment.getCoronaActivity();
-            final String fAdUnitIdParam = adUnitIdParam;
-
-            try {
-                if (coronaActivity != null) {
-                    // since we're returning a value to Lua, we need to implement a FutureTask
-                    FutureTask<Double> heightTask = new FutureTask<>(new Callable<Double>() {
-                        @Override
-                        public Double call() {
-                            String adUnitId;
-                            if (fAdUnitIdParam != null) {
-                                adUnitId = fAdUnitIdParam;
-                            } else {
-                                adUnitId = (String) admobObjects.get(TYPE_BANNER);
-                            }
-
-                            double result = 0.0;
-
-                            if (adUnitId == null) {
-                                logMsg(WARNING_MSG, "Banner not loaded");
-                            } else {
-                                AdView banner = (AdView) admobObjects.get(adUnitId);
-                                if (banner != null) {
-                                    AdSize size = banner.getAdSize();
-                                    if (size != null) {
-                                        result = size.getHeightInPixels(coronaActivity) / (double) admobObjects.get(Y_RATIO_KEY);
-                                    }
-                                }
-                            }
-
-                            // return result to FutureTask
-                            return result;
-                        }
-                    });
-
-                    coronaActivity.runOnUiThread(heightTask);
+            String adUnitId = adUnitIdParam;
+            if (adUnitId == null) {
+                adUnitId = registry.getDefaultAdUnitId(TYPE_BANNER);
+            }
 
-                    // IMPORTANT! must use get() so FutureTask will block until it returns a value
-                    height = heightTask.get(2000, TimeUnit.MILLISECONDS);
+            if (adUnitId == null) {
+                logMsg(WARNING_MSG, "Banner not loaded");
+            } else {
+                // read the snapshot published by the UI thread
+                CoronaAdmobBannerSlot slot = registry.getBanner(adUnitId);
+                if (slot != null) {
+                    height = slot.state.getHeight();
                 }
-            } catch (Exception ex) {
-                ex.printStackTrace();
             }
 
             luaState.pushNumber(height);
@@ -1648,8 +2813,8 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
         }
     }
 
-    // [Lua] updateConsentForm( [options] )
-    private class UpdateConsentForm implements NamedJavaFunction {
+    // [Lua] getStats()
+    private class GetStats implements NamedJavaFunction {
         /**
          * Gets the name of the Lua function as it would appear in the Lua script.
          *
@@ -1657,7 +2822,7 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
          */
         @Override
         public String getName() {
-            return "updateConsentForm";
+            return "getStats";
         }
 
         /**
@@ -1671,7 +2836,7 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
          */
         @Override
         public int invoke(final LuaState luaState) {
-            functionSignature = "admob.updateConsentForm( [options] )";
+            functionSignature = "admob.getStats()";
 
             if (!isSDKInitialized()) {
                 return 0;
@@ -1679,37 +2844,151 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
 
             // check number of args
             int nargs = luaState.getTop();
-            if (nargs > 1) {
-                logMsg(ERROR_MSG, "Expected 0 or 1 argument, got " + nargs);
+            if (nargs != 0) {
+                logMsg(ERROR_MSG, "Expected no arguments, got " + nargs);
                 return 0;
             }
 
-            ConsentRequestParameters.Builder params = new ConsentRequestParameters.Builder();
+            luaState.newTable(0, 4);
+            luaState.pushNumber(coalescedEventCount.get());
+            luaState.setField(-2, "coalescedEvents");
+            luaState.pushNumber(eventAllocationCount.get());
+            luaState.setField(-2, "eventAllocations");
+            pushViewRestoreStats(luaState);
+            luaState.setField(-2, "viewRestore");
+            CoronaAdmobSlotStats.pushAll(luaState, registry);
+            luaState.setField(-2, DATA_AD_UNITS_KEY);
 
-            // check for options table
-            if (!luaState.isNoneOrNil(1)) {
-                if (luaState.type(1) == LuaType.TABLE) {
-                    // traverse and validate all the options
-                    for (luaState.pushNil(); luaState.next(1); luaState.pop(1)) {
-                        String key = luaState.toString(-2);
+            return 1;
+        }
+    }
 
-                        if (key.equals("underage")) {
-                            if (luaState.type(-1) == LuaType.BOOLEAN) {
-                                params.setTagForUnderAgeOfConsent(luaState.toBoolean(-1));
-                            } else {
-                                logMsg(ERROR_MSG, "options.underage (boolean) expected, got " + luaState.typeName(-1));
-                                return 0;
-                            }
-                        }else if (key.equals("debug")) {
-                            ConsentDebugSettings.Builder debugSettings = new ConsentDebugSettings.Builder(CoronaEnvironment.getApplicationContext());
-                            if (luaState.type(-1) == LuaType.TABLE) {
-                                luaState.getField(-1, "geography");
-                                if(luaState.isString(-1)){
-                                    if(luaState.toString(-1).equals("EEA")){
-                                        debugSettings.setDebugGeography(ConsentDebugSettings.DebugGeography.DEBUG_GEOGRAPHY_EEA);
-                                    }else if(luaState.toString(-1).equals("notEEA")){
-                                        debugSettings.setDebugGeography(ConsentDebugSettings.DebugGeography.DEBUG_GEOGRAPHY_NOT_EEA);
-                                    }else{
+    // mode and timings of the view restores in milliseconds (Lua thread)
+    private static void pushViewRestoreStats(LuaState luaState) {
+        long count = viewRestoreCount.get();
+        luaState.newTable(0, 5);
+        luaState.pushString(viewRestoreTargeted ? VIEW_RESTORE_TARGETED : VIEW_RESTORE_ALL);
+        luaState.setField(-2, VIEW_RESTORE_MODE_KEY);
+        luaState.pushNumber(count);
+        luaState.setField(-2, VIEW_RESTORE_COUNT_KEY);
+        luaState.pushNumber(viewRestoreLastNanos.get() / 1e6);
+        luaState.setField(-2, VIEW_RESTORE_LAST_KEY);
+        luaState.pushNumber(count > 0 ? viewRestoreTotalNanos.get() / 1e6 / count : 0);
+        luaState.setField(-2, VIEW_RESTORE_AVERAGE_KEY);
+        luaState.pushNumber(viewRestoreMaxNanos.get() / 1e6);
+        luaState.setField(-2, VIEW_RESTORE_MAX_KEY);
+    }
+
+    // [Lua] getAdapterStatus()
+    private class GetAdapterStatus implements NamedJavaFunction {
+        /**
+         * Gets the name of the Lua function as it would appear in the Lua script.
+         *
+         * @return Returns the name of the custom Lua function.
+         */
+        @Override
+        public String getName() {
+            return "getAdapterStatus";
+        }
+
+        /**
+         * This method is called when the Lua function is called.
+         * <p>
+         * Warning! This method is not called on the main UI thread.
+         *
+         * @param luaState Reference to the Lua state.
+         *                 Needed to retrieve the Lua function's parameters and to return values back to Lua.
+         * @return Returns the number of values to be returned by the Lua function.
+         */
+        @Override
+        public int invoke(final LuaState luaState) {
+            functionSignature = "admob.getAdapterStatus()";
+
+            if (!isSDKInitialized()) {
+                return 0;
+            }
+
+            // check number of args
+            int nargs = luaState.getTop();
+            if (nargs != 0) {
+                logMsg(ERROR_MSG, "Expected no arguments, got " + nargs);
+                return 0;
+            }
+
+            InitializationStatus initializationStatus = MobileAds.getInitializationStatus();
+            if (initializationStatus == null) {
+                logMsg(WARNING_MSG, "MobileAds initialization has not finished yet");
+                return 0;
+            }
+
+            new CoronaAdmobAdapterStatus(initializationStatus).push(luaState);
+
+            return 1;
+        }
+    }
+
+    // [Lua] updateConsentForm( [options] )
+    private class UpdateConsentForm implements NamedJavaFunction {
+        /**
+         * Gets the name of the Lua function as it would appear in the Lua script.
+         *
+         * @return Returns the name of the custom Lua function.
+         */
+        @Override
+        public String getName() {
+            return "updateConsentForm";
+        }
+
+        /**
+         * This method is called when the Lua function is called.
+         * <p>
+         * Warning! This method is not called on the main UI thread.
+         *
+         * @param luaState Reference to the Lua state.
+         *                 Needed to retrieve the Lua function's parameters and to return values back to Lua.
+         * @return Returns the number of values to be returned by the Lua function.
+         */
+        @Override
+        public int invoke(final LuaState luaState) {
+            functionSignature = "admob.updateConsentForm( [options] )";
+
+            if (!isSDKInitialized()) {
+                return 0;
+            }
+
+            // check number of args
+            int nargs = luaState.getTop();
+            if (nargs > 1) {
+                logMsg(ERROR_MSG, "Expected 0 or 1 argument, got " + nargs);
+                return 0;
+            }
+
+            ConsentRequestParameters.Builder params = new ConsentRequestParameters.Builder();
+
+            // check for options table
+            if (!luaState.isNoneOrNil(1)) {
+                if (luaState.type(1) == LuaType.TABLE) {
+                    // traverse and validate all the options
+                    for (luaState.pushNil(); luaState.next(1); luaState.pop(1)) {
+                        String key = luaState.toString(-2);
+
+                        if (key.equals("underage")) {
+                            if (luaState.type(-1) == LuaType.BOOLEAN) {
+                                params.setTagForUnderAgeOfConsent(luaState.toBoolean(-1));
+                            } else {
+                                logMsg(ERROR_MSG, "options.underage (boolean) expected, got " + luaState.typeName(-1));
+                                return 0;
+                            }
+                        }else if (key.equals("debug")) {
+                            ConsentDebugSettings.Builder debugSettings = new ConsentDebugSettings.Builder(CoronaEnvironment.getApplicationContext());
+                            if (luaState.type(-1) == LuaType.TABLE) {
+                                luaState.getField(-1, "geography");
+                                if(luaState.isString(-1)){
+                                    if(luaState.toString(-1).equals("EEA")){
+                                        debugSettings.setDebugGeography(ConsentDebugSettings.DebugGeography.DEBUG_GEOGRAPHY_EEA);
+                                    }else if(luaState.toString(-1).equals("notEEA")){
+                                        debugSettings.setDebugGeography(ConsentDebugSettings.DebugGeography.DEBUG_GEOGRAPHY_NOT_EEA);
+                                    }else{
                                         debugSettings.setDebugGeography(ConsentDebugSettings.DebugGeography.DEBUG_GEOGRAPHY_DISABLED);
                                     }
                                 }
@@ -1751,22 +3030,18 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
                 new ConsentInformation.OnConsentInfoUpdateSuccessListener() {
                     @Override
                     public void onConsentInfoUpdateSuccess() {
-                        Map<String, Object> coronaEvent = new HashMap<>();
-                        coronaEvent.put(EVENT_PHASE_KEY, PHASE_REFRESHED);
-                        coronaEvent.put(EVENT_TYPE_KEY, TYPE_UMP);
-                        coronaEvent.put(CoronaLuaEvent.ISERROR_KEY, false);
-                        dispatchLuaEvent(coronaEvent);
+                        CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_REFRESHED, TYPE_UMP);
+                        event.set(CoronaAdmobEventField.IS_ERROR, false);
+                        dispatchLuaEvent(event);
                     }
                 },
                 new ConsentInformation.OnConsentInfoUpdateFailureListener() {
                     @Override
                     public void onConsentInfoUpdateFailure(@NonNull FormError formError) {
-                        Map<String, Object> coronaEvent = new HashMap<>();
-                        coronaEvent.put(EVENT_PHASE_KEY, PHASE_FAILED);
-                        coronaEvent.put(CoronaLuaEvent.ERRORTYPE_KEY, formError.getMessage());
-                        coronaEvent.put(EVENT_TYPE_KEY, TYPE_UMP);
-                        coronaEvent.put(CoronaLuaEvent.ISERROR_KEY, true);
-                        dispatchLuaEvent(coronaEvent);
+                        CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_FAILED, TYPE_UMP);
+                        event.set(CoronaAdmobEventField.ERROR_TYPE, formError.getMessage());
+                        event.set(CoronaAdmobEventField.IS_ERROR, true);
+                        dispatchLuaEvent(event);
                     }
                 }
             );
@@ -1812,22 +3087,18 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
                                 @Override
                                 public void onConsentFormLoadSuccess(ConsentForm consentForm) {
                                     umpForm = consentForm;
-                                    Map<String, Object> coronaEvent = new HashMap<>();
-                                    coronaEvent.put(EVENT_PHASE_KEY, PHASE_LOADED);
-                                    coronaEvent.put(EVENT_TYPE_KEY, TYPE_UMP);
-                                    coronaEvent.put(CoronaLuaEvent.ISERROR_KEY, false);
-                                    dispatchLuaEvent(coronaEvent);
+                                    CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_LOADED, TYPE_UMP);
+                                    event.set(CoronaAdmobEventField.IS_ERROR, false);
+                                    dispatchLuaEvent(event);
                                 }
                             },
                             new UserMessagingPlatform.OnConsentFormLoadFailureListener() {
                                 @Override
                                 public void onConsentFormLoadFailure(FormError formError) {
-                                    Map<String, Object> coronaEvent = new HashMap<>();
-                                    coronaEvent.put(EVENT_PHASE_KEY, PHASE_FAILED);
-                                    coronaEvent.put(CoronaLuaEvent.ERRORTYPE_KEY, formError.getMessage());
-                                    coronaEvent.put(EVENT_TYPE_KEY, TYPE_UMP);
-                                    coronaEvent.put(CoronaLuaEvent.ISERROR_KEY, true);
-                                    dispatchLuaEvent(coronaEvent);
+                                    CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_FAILED, TYPE_UMP);
+                                    event.set(CoronaAdmobEventField.ERROR_TYPE, formError.getMessage());
+                                    event.set(CoronaAdmobEventField.IS_ERROR, true);
+                                    dispatchLuaEvent(event);
                                 }
                             }
                     );
@@ -1877,18 +3148,14 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
                                     @Override
                                     public void onConsentFormDismissed(@Nullable FormError formError) {
                                         if(formError == null){
-                                            Map<String, Object> coronaEvent = new HashMap<>();
-                                            coronaEvent.put(EVENT_PHASE_KEY, PHASE_FAILED);
-                                            coronaEvent.put(CoronaLuaEvent.ERRORTYPE_KEY, formError.getMessage());
-                                            coronaEvent.put(EVENT_TYPE_KEY, TYPE_UMP);
-                                            coronaEvent.put(CoronaLuaEvent.ISERROR_KEY, true);
-                                            dispatchLuaEvent(coronaEvent);
+                                            CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_FAILED, TYPE_UMP);
+                                            event.set(CoronaAdmobEventField.ERROR_TYPE, formError.getMessage());
+                                            event.set(CoronaAdmobEventField.IS_ERROR, true);
+                                            dispatchLuaEvent(event);
                                         }else{
-                                            Map<String, Object> coronaEvent = new HashMap<>();
-                                            coronaEvent.put(EVENT_PHASE_KEY, PHASE_HIDDEN);
-                                            coronaEvent.put(EVENT_TYPE_KEY, TYPE_UMP);
-                                            coronaEvent.put(CoronaLuaEvent.ISERROR_KEY, false);
-                                            dispatchLuaEvent(coronaEvent);
+                                            CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_HIDDEN, TYPE_UMP);
+                                            event.set(CoronaAdmobEventField.IS_ERROR, false);
+                                            dispatchLuaEvent(event);
                                         }
 
                                     }
@@ -1896,12 +3163,10 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
                     }
                 });
             }else{
-                Map<String, Object> coronaEvent = new HashMap<>();
-                coronaEvent.put(EVENT_PHASE_KEY, PHASE_FAILED);
-                coronaEvent.put(CoronaLuaEvent.ERRORTYPE_KEY, "Consent Form not Loaded");
-                coronaEvent.put(EVENT_TYPE_KEY, TYPE_UMP);
-                coronaEvent.put(CoronaLuaEvent.ISERROR_KEY, true);
-                dispatchLuaEvent(coronaEvent);
+                CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_FAILED, TYPE_UMP);
+                event.set(CoronaAdmobEventField.ERROR_TYPE, "Consent Form not Loaded");
+                event.set(CoronaAdmobEventField.IS_ERROR, true);
+                dispatchLuaEvent(event);
             }
 
             return 0;
@@ -1960,360 +3225,2164 @@ public class LuaLoader implements JavaFunction, CoronaRuntimeListener {
 
     // -------------------------------------------------------------------
 
-    private class CoronaAdmobFullScreenDelegate extends FullScreenContentCallback implements OnUserEarnedRewardListener {
-        String adUnitId;
-        String adType;
+    // runs a Lua function inside a trace section named after it (see init option 'trace')
+    private static final class CoronaAdmobTracedFunction implements NamedJavaFunction {
+        private final NamedJavaFunction function;
+        private final String section;
 
-        CoronaAdmobFullScreenDelegate(String adType, String adUnitId) {
-            this.adUnitId = adUnitId;
-            this.adType = adType;
+        CoronaAdmobTracedFunction(NamedJavaFunction function) {
+            this.function = function;
+            this.section = "admob." + function.getName();
         }
 
         @Override
-        public void onUserEarnedReward(RewardItem rewardItem) {
-            // create data
-            JSONObject data = new JSONObject();
-            try {
-                data.put(DATA_ADUNIT_ID_KEY, adUnitId);
-                data.put(REWARD_ITEM, rewardItem.getType());
-                data.put(REWARD_AMOUNT, rewardItem.getAmount());
-
-                Map<String, Object> coronaEvent = new HashMap<>();
-                coronaEvent.put(EVENT_PHASE_KEY, PHASE_REWARD);
-                coronaEvent.put(EVENT_TYPE_KEY, TYPE_REWARDEDVIDEO);
-                coronaEvent.put(EVENT_DATA_KEY, data.toString());
-                dispatchLuaEvent(coronaEvent);
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
+        public String getName() {
+            return function.getName();
         }
 
-        public void coronaAdOpened() {
-            // create data
-            JSONObject data = new JSONObject();
+        @Override
+        public int invoke(LuaState luaState) {
+            boolean traced = traceBegin(section);
             try {
-                data.put(DATA_ADUNIT_ID_KEY, adUnitId);
-
-                Map<String, Object> coronaEvent = new HashMap<>();
-                coronaEvent.put(EVENT_PHASE_KEY, PHASE_DISPLAYED);
-                coronaEvent.put(EVENT_TYPE_KEY, adType);
-                coronaEvent.put(EVENT_DATA_KEY, data.toString());
-                dispatchLuaEvent(coronaEvent);
-            } catch (Exception e) {
-                e.printStackTrace();
+                return function.invoke(luaState);
+            } finally {
+                traceEnd(traced);
             }
         }
+    }
 
+    // -------------------------------------------------------------------
 
-        @Override
-        public void onAdDismissedFullScreenContent() {
-            // create data
-            JSONObject data = new JSONObject();
-            try {
-                data.put(DATA_ADUNIT_ID_KEY, adUnitId);
+    // fixed set of event fields, the data fields end up in event.data
+    private enum CoronaAdmobEventField {
+        PHASE(EVENT_PHASE_KEY, false),
+        TYPE(EVENT_TYPE_KEY, false),
+        RESPONSE(CoronaLuaEvent.RESPONSE_KEY, false),
+        IS_ERROR(CoronaLuaEvent.ISERROR_KEY, false),
+        ERROR_TYPE(CoronaLuaEvent.ERRORTYPE_KEY, false),
+        ADUNIT_ID(DATA_ADUNIT_ID_KEY, true),
+        ERROR_MSG(DATA_ERRORMSG_KEY, true),
+        ERROR_CODE(DATA_ERRORCODE_KEY, true),
+        ERROR_CATEGORY(DATA_ERROR_CATEGORY_KEY, true),
+        RETRY_IN(DATA_RETRY_IN_KEY, true),
+        CIRCUIT_OPEN(DATA_CIRCUIT_OPEN_KEY, true),
+        REWARD_ITEM(LuaLoader.REWARD_ITEM, true),
+        REWARD_AMOUNT(LuaLoader.REWARD_AMOUNT, true),
+        ATTEMPTS(DATA_ATTEMPTS_KEY, true),
+        TIMED_OUT(DATA_TIMED_OUT_KEY, true),
+        ADAPTERS(DATA_ADAPTERS_KEY, true),
+        AD_UNITS(DATA_AD_UNITS_KEY, true);
+
+        final String key;
+        final boolean isData;
+
+        CoronaAdmobEventField(String key, boolean isData) {
+            this.key = key;
+            this.isData = isData;
+        }
+    }
 
-                Map<String, Object> coronaEvent = new HashMap<>();
-                coronaEvent.put(EVENT_PHASE_KEY, PHASE_CLOSED);
-                coronaEvent.put(EVENT_TYPE_KEY, adType);
-                coronaEvent.put(EVENT_DATA_KEY, data.toString());
-                dispatchLuaEvent(coronaEvent);
-            } catch (Exception e) {
-                e.printStackTrace();
+    // pooled, fixed-shape event record
+    // values are kept in primitive arrays indexed by field, so filling and delivering an event allocates nothing
+    // (apart from the Lua tables and, in json mode, the event.data string)
+    private static final class CoronaAdmobEvent implements CoronaRuntimeTask {
+        private static final CoronaAdmobEventField[] FIELDS = CoronaAdmobEventField.values();
+        private static final byte KIND_UNSET = 0;
+        private static final byte KIND_STRING = 1;
+        private static final byte KIND_NUMBER = 2;
+        private static final byte KIND_BOOLEAN = 3;
+        private static final byte KIND_ATTEMPTS = 4;
+        private static final byte KIND_ADAPTERS = 5;
+        private static final byte KIND_STATS = 6;
+
+        // free list, guarded by the class lock
+        private static CoronaAdmobEvent freeEvents = null;
+        private static int freeEventCount = 0;
+
+        // only used on the Lua thread
+        private static final StringBuilder jsonBuilder = new StringBuilder(256);
+
+        private final byte[] kinds = new byte[FIELDS.length];
+        private final String[] strings = new String[FIELDS.length];
+        private final double[] numbers = new double[FIELDS.length];
+        private final Object[] objects = new Object[FIELDS.length];
+        CoronaAdmobEvent next;  // free list or pending event list link
+
+        static CoronaAdmobEvent obtain(String phase, String type) {
+            CoronaAdmobEvent event = null;
+            synchronized (CoronaAdmobEvent.class) {
+                if (freeEvents != null) {
+                    event = freeEvents;
+                    freeEvents = event.next;
+                    freeEventCount--;
+                }
+            }
+            if (event == null) {
+                event = new CoronaAdmobEvent();
+                eventAllocationCount.incrementAndGet();
             }
-            invalidateAllViews();
+            event.next = null;
+            event.set(CoronaAdmobEventField.PHASE, phase);
+            if (type != null) {
+                event.set(CoronaAdmobEventField.TYPE, type);
+            }
+            return event;
         }
 
-        @Override
-        public void onAdFailedToShowFullScreenContent(AdError err) {
-            // create data
-            JSONObject data = new JSONObject();
-            try {
-                data.put(DATA_ERRORMSG_KEY, err.toString());
-                data.put(DATA_ERRORCODE_KEY, err.getCode());
-                data.put(DATA_ADUNIT_ID_KEY, adUnitId);
-
-                Map<String, Object> coronaEvent = new HashMap<>();
-                coronaEvent.put(EVENT_PHASE_KEY, PHASE_FAILED);
-                coronaEvent.put(EVENT_TYPE_KEY, adType);
-                coronaEvent.put(EVENT_DATA_KEY, data.toString());
-                coronaEvent.put(CoronaLuaEvent.ISERROR_KEY, true);
-                dispatchLuaEvent(coronaEvent);
-            } catch (Exception e) {
-                e.printStackTrace();
+        static void recycle(CoronaAdmobEvent event) {
+            event.reset();
+            synchronized (CoronaAdmobEvent.class) {
+                if (freeEventCount < MAX_POOLED_EVENTS) {
+                    event.next = freeEvents;
+                    freeEvents = event;
+                    freeEventCount++;
+                }
             }
         }
-    }
 
-    private class CoronaAdmobInterstitialLoadDelegate extends InterstitialAdLoadCallback {
-        public InterstitialAd interstitialAd;
-        String adUnitId;
+        void set(CoronaAdmobEventField field, String value) {
+            int i = field.ordinal();
+            kinds[i] = value != null ? KIND_STRING : KIND_UNSET;
+            strings[i] = value;
+        }
 
-        CoronaAdmobInterstitialLoadDelegate(String adUnitId) {
-            this.adUnitId = adUnitId;
+        void set(CoronaAdmobEventField field, double value) {
+            int i = field.ordinal();
+            kinds[i] = KIND_NUMBER;
+            numbers[i] = value;
         }
 
-        @Override
-        public void onAdLoaded(InterstitialAd ad) {
-            interstitialAd = ad;
-            // create data
-            JSONObject data = new JSONObject();
-            try {
-                data.put(DATA_ADUNIT_ID_KEY, adUnitId);
-                Map<String, Object> coronaEvent = new HashMap<>();
-                coronaEvent.put(EVENT_PHASE_KEY, PHASE_LOADED);
-                coronaEvent.put(EVENT_TYPE_KEY, TYPE_INTERSTITIAL);
-                coronaEvent.put(EVENT_DATA_KEY, data.toString());
-                dispatchLuaEvent(coronaEvent);
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
+        void set(CoronaAdmobEventField field, boolean value) {
+            int i = field.ordinal();
+            kinds[i] = KIND_BOOLEAN;
+            numbers[i] = value ? 1 : 0;
         }
 
-        @Override
-        public void onAdFailedToLoad(LoadAdError adError) {
-            JSONObject data = new JSONObject();
-            try {
-                data.put(DATA_ADUNIT_ID_KEY, adUnitId);
-                Map<String, Object> coronaEvent = new HashMap<>();
-                coronaEvent.put(EVENT_PHASE_KEY, PHASE_FAILED);
-                coronaEvent.put(EVENT_TYPE_KEY, TYPE_INTERSTITIAL);
-                coronaEvent.put(CoronaLuaEvent.RESPONSE_KEY, RESPONSE_LOAD_FAILED);
-                coronaEvent.put(EVENT_DATA_KEY, data.toString());
-                coronaEvent.put(CoronaLuaEvent.ISERROR_KEY, true);
-                coronaEvent.put(CoronaLuaEvent.ERRORTYPE_KEY, adError.toString());
-                logMsg(ERROR_MSG, "Error while loading ad " + adError);
-                dispatchLuaEvent(coronaEvent);
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
+        void set(CoronaAdmobEventField field, CoronaAdmobLoadOperation value) {
+            int i = field.ordinal();
+            kinds[i] = value != null ? KIND_ATTEMPTS : KIND_UNSET;
+            objects[i] = value;
         }
-    }
 
-    private class CoronaAdmobRewardedLoadDelegate extends RewardedAdLoadCallback {
-        public RewardedAd rewardedAd;
-        String adUnitId;
+        void set(CoronaAdmobEventField field, CoronaAdmobAdapterStatus value) {
+            int i = field.ordinal();
+            kinds[i] = value != null ? KIND_ADAPTERS : KIND_UNSET;
+            objects[i] = value;
+        }
 
-        CoronaAdmobRewardedLoadDelegate(String adUnitId) {
-            this.adUnitId = adUnitId;
+        // the metrics are read when the event is delivered, not when it is sent
+        void set(CoronaAdmobEventField field, CoronaAdmobRegistry value) {
+            int i = field.ordinal();
+            kinds[i] = value != null ? KIND_STATS : KIND_UNSET;
+            objects[i] = value;
         }
 
-        @Override
-        public void onAdLoaded(RewardedAd ad) {
-            rewardedAd = ad;
-            // create data
-            JSONObject data = new JSONObject();
-            try {
-                data.put(DATA_ADUNIT_ID_KEY, adUnitId);
-                Map<String, Object> coronaEvent = new HashMap<>();
-                coronaEvent.put(EVENT_PHASE_KEY, PHASE_LOADED);
-                coronaEvent.put(EVENT_TYPE_KEY, TYPE_REWARDEDVIDEO);
-                coronaEvent.put(EVENT_DATA_KEY, data.toString());
-                dispatchLuaEvent(coronaEvent);
-            } catch (Exception e) {
-                e.printStackTrace();
+        private void reset() {
+            for (int i = 0; i < FIELDS.length; i++) {
+                kinds[i] = KIND_UNSET;
+                strings[i] = null;
+                objects[i] = null;
             }
+            next = null;
         }
 
         @Override
-        public void onAdFailedToLoad(LoadAdError adError) {
-            JSONObject data = new JSONObject();
-            try {
-                data.put(DATA_ADUNIT_ID_KEY, adUnitId);
-                Map<String, Object> coronaEvent = new HashMap<>();
-                coronaEvent.put(EVENT_PHASE_KEY, PHASE_FAILED);
-                coronaEvent.put(EVENT_TYPE_KEY, TYPE_REWARDEDVIDEO);
-                coronaEvent.put(CoronaLuaEvent.RESPONSE_KEY, RESPONSE_LOAD_FAILED);
-                coronaEvent.put(EVENT_DATA_KEY, data.toString());
-                coronaEvent.put(CoronaLuaEvent.ISERROR_KEY, true);
-                coronaEvent.put(CoronaLuaEvent.ERRORTYPE_KEY, adError.toString());
-                logMsg(ERROR_MSG, "Error while loading ad " + adError);
-                dispatchLuaEvent(coronaEvent);
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
+        public void executeUsing(CoronaRuntime runtime) {
+            deliver(runtime.getLuaState());
         }
-    }
 
+        // pushes the event to the Lua listener and returns the record to the pool, must be called on the Lua thread
+        void deliver(LuaState L) {
+            boolean traced = traceBegin("admob.deliverEvent");
+            try {
+                CoronaLua.newEvent(L, EVENT_NAME);
+                int dataCount = 0;
+
+                for (int i = 0; i < FIELDS.length; i++) {
+                    if (kinds[i] == KIND_UNSET) {
+                        continue;
+                    }
+                    if (FIELDS[i].isData) {
+                        dataCount++;
+                        continue;
+                    }
+                    pushValue(L, i);
+                    L.setField(-2, FIELDS[i].key);
+                }
 
-    // -------------------------------------------------------------------
+                // add error key if not set
+                if (kinds[CoronaAdmobEventField.IS_ERROR.ordinal()] == KIND_UNSET) {
+                    L.pushBoolean(false);
+                    L.setField(-2, CoronaLuaEvent.ISERROR_KEY);
+                }
 
-    private class CoronaAdmobRewardedInterstitialLoadDelegate extends RewardedInterstitialAdLoadCallback {
-        public RewardedInterstitialAd rewardedInterstitialAd;
-        String adUnitId;
+                if (dataCount > 0) {
+                    if (dataAsTable) {
+                        // build event.data directly on the Lua stack, no encoding on our side and no json.decode() on the listener side
+                        L.newTable(0, dataCount);
+                        for (int i = 0; i < FIELDS.length; i++) {
+                            if (kinds[i] != KIND_UNSET && FIELDS[i].isData) {
+                                pushValue(L, i);
+                                L.setField(-2, FIELDS[i].key);
+                            }
+                        }
+                    } else {
+                        L.pushString(toJson());
+                    }
+                    L.setField(-2, EVENT_DATA_KEY);
+                }
 
-        CoronaAdmobRewardedInterstitialLoadDelegate(String adUnitId) {
-            this.adUnitId = adUnitId;
-        }
+                // add provider
+                L.pushString(PROVIDER_NAME);
+                L.setField(-2, CoronaLuaEvent.PROVIDER_KEY);
 
-        @Override
-        public void onAdLoaded(RewardedInterstitialAd ad) {
-            rewardedInterstitialAd = ad;
-            // create data
-            JSONObject data = new JSONObject();
-            try {
-                data.put(DATA_ADUNIT_ID_KEY, adUnitId);
-                Map<String, Object> coronaEvent = new HashMap<>();
-                coronaEvent.put(EVENT_PHASE_KEY, PHASE_LOADED);
-                coronaEvent.put(EVENT_TYPE_KEY, TYPE_REWARDEDINTERSTITIAL);
-                coronaEvent.put(EVENT_DATA_KEY, data.toString());
-                dispatchLuaEvent(coronaEvent);
-            } catch (Exception e) {
-                e.printStackTrace();
+                CoronaLua.dispatchEvent(L, coronaListener, 0);
+            } catch (Exception ex) {
+                ex.printStackTrace();
+            } finally {
+                recycle(this);
+                traceEnd(traced);
             }
         }
 
-        @Override
-        public void onAdFailedToLoad(LoadAdError adError) {
-            JSONObject data = new JSONObject();
-            try {
-                data.put(DATA_ADUNIT_ID_KEY, adUnitId);
-                Map<String, Object> coronaEvent = new HashMap<>();
-                coronaEvent.put(EVENT_PHASE_KEY, PHASE_FAILED);
-                coronaEvent.put(EVENT_TYPE_KEY, TYPE_REWARDEDINTERSTITIAL);
-                coronaEvent.put(CoronaLuaEvent.RESPONSE_KEY, RESPONSE_LOAD_FAILED);
-                coronaEvent.put(EVENT_DATA_KEY, data.toString());
-                coronaEvent.put(CoronaLuaEvent.ISERROR_KEY, true);
-                coronaEvent.put(CoronaLuaEvent.ERRORTYPE_KEY, adError.toString());
-                logMsg(ERROR_MSG, "Error while loading ad " + adError);
-                dispatchLuaEvent(coronaEvent);
-            } catch (Exception e) {
-                e.printStackTrace();
+        private void pushValue(LuaState L, int i) {
+            switch (kinds[i]) {
+                case KIND_STRING:
+                    L.pushString(strings[i]);
+                    break;
+                case KIND_NUMBER:
+                    L.pushNumber(numbers[i]);
+                    break;
+                case KIND_ATTEMPTS:
+                    // array of { adUnitId=, result=, latency= } tables
+                    CoronaAdmobLoadOperation operation = (CoronaAdmobLoadOperation) objects[i];
+                    L.newTable(operation.attemptCount, 0);
+                    for (int attempt = 0; attempt < operation.attemptCount; attempt++) {
+                        L.newTable(0, 3);
+                        L.pushString(operation.adUnitIds[attempt]);
+                        L.setField(-2, DATA_ADUNIT_ID_KEY);
+                        L.pushString(operation.results[attempt]);
+                        L.setField(-2, ATTEMPT_RESULT_KEY);
+                        L.pushNumber(operation.latencies[attempt]);
+                        L.setField(-2, ATTEMPT_LATENCY_KEY);
+                        L.rawSet(-2, attempt + 1);
+                    }
+                    break;
+                case KIND_ADAPTERS:
+                    ((CoronaAdmobAdapterStatus) objects[i]).push(L);
+                    break;
+                case KIND_STATS:
+                    CoronaAdmobSlotStats.pushAll(L, (CoronaAdmobRegistry) objects[i]);
+                    break;
+                default:
+                    L.pushBoolean(numbers[i] != 0);
+                    break;
             }
         }
-    }
-
 
-    // -------------------------------------------------------------------
+        private String toJson() {
+            StringBuilder json = jsonBuilder;
+            json.setLength(0);
+            json.append('{');
+            for (int i = 0; i < FIELDS.length; i++) {
+                if (kinds[i] == KIND_UNSET || !FIELDS[i].isData) {
+                    continue;
+                }
+                if (json.length() > 1) {
+                    json.append(',');
+                }
+                json.append('"').append(FIELDS[i].key).append("\":");
+                switch (kinds[i]) {
+                    case KIND_STRING:
+                        appendJsonString(json, strings[i]);
+                        break;
+                    case KIND_NUMBER:
+                        double value = numbers[i];
+                        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+                            json.append((long) value);
+                        } else {
+                            json.append(value);
+                        }
+                        break;
+                    case KIND_ATTEMPTS:
+                        CoronaAdmobLoadOperation operation = (CoronaAdmobLoadOperation) objects[i];
+                        json.append('[');
+                        for (int attempt = 0; attempt < operation.attemptCount; attempt++) {
+                            if (attempt > 0) {
+                                json.append(',');
+                            }
+                            json.append("{\"").append(DATA_ADUNIT_ID_KEY).append("\":");
+                            appendJsonString(json, operation.adUnitIds[attempt]);
+                            json.append(",\"").append(ATTEMPT_RESULT_KEY).append("\":");
+                            appendJsonString(json, operation.results[attempt]);
+                            json.append(",\"").append(ATTEMPT_LATENCY_KEY).append("\":").append(operation.latencies[attempt]).append('}');
+                        }
+                        json.append(']');
+                        break;
+                    case KIND_ADAPTERS:
+                        ((CoronaAdmobAdapterStatus) objects[i]).appendJson(json);
+                        break;
+                    case KIND_STATS:
+                        CoronaAdmobSlotStats.appendAllJson(json, (CoronaAdmobRegistry) objects[i]);
+                        break;
+                    default:
+                        json.append(numbers[i] != 0);
+                        break;
+                }
+            }
+            return json.append('}').toString();
+        }
 
-    private class CoronaAdmobAppOpenLoadDelegate extends AppOpenAd.AppOpenAdLoadCallback {
-        public AppOpenAd appOpenAd;
-        String adUnitId;
+        private static void appendJsonString(StringBuilder json, String value) {
+            json.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                        json.append("\\\"");
+                        break;
+                    case '\\':
+                        json.append("\\\\");
+                        break;
+                    case '\n':
+                        json.append("\\n");
+                        break;
+                    case '\r':
+                        json.append("\\r");
+                        break;
+                    case '\t':
+                        json.append("\\t");
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            json.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                        } else {
+                            json.append(c);
+                        }
+                        break;
+                }
+            }
+            json.append('"');
+        }
+    }
 
-        CoronaAdmobAppOpenLoadDelegate(String adUnitId) {
-            this.adUnitId = adUnitId;
+    // snapshot of the mediation adapter states reported by MobileAds.initialize()
+    private static final class CoronaAdmobAdapterStatus {
+        final String[] names;
+        final String[] states;
+        final int[] latencies;
+        final String[] descriptions;
+
+        CoronaAdmobAdapterStatus(InitializationStatus initializationStatus) {
+            Map<String, AdapterStatus> statusMap = initializationStatus.getAdapterStatusMap();
+            names = new String[statusMap.size()];
+            states = new String[statusMap.size()];
+            latencies = new int[statusMap.size()];
+            descriptions = new String[statusMap.size()];
+
+            int i = 0;
+            for (Map.Entry<String, AdapterStatus> entry : statusMap.entrySet()) {
+                AdapterStatus status = entry.getValue();
+                names[i] = entry.getKey();
+                states[i] = status.getInitializationState() == AdapterStatus.State.READY ? ADAPTER_STATE_READY : ADAPTER_STATE_NOT_READY;
+                latencies[i] = status.getLatency();
+                descriptions[i] = status.getDescription() != null ? status.getDescription() : "";
+                i++;
+            }
         }
 
-        @Override
-        public void onAdLoaded(AppOpenAd ad) {
-            appOpenAd = ad;
-            // create data
-            JSONObject data = new JSONObject();
-            try {
-                data.put(DATA_ADUNIT_ID_KEY, adUnitId);
-                Map<String, Object> coronaEvent = new HashMap<>();
-                coronaEvent.put(EVENT_PHASE_KEY, PHASE_LOADED);
-                coronaEvent.put(EVENT_TYPE_KEY, TYPE_APPOPEN);
-                coronaEvent.put(EVENT_DATA_KEY, data.toString());
-                dispatchLuaEvent(coronaEvent);
-            } catch (Exception e) {
-                e.printStackTrace();
+        // pushes an adapter class name -> { state=, latency=, description= } table
+        void push(LuaState L) {
+            L.newTable(0, names.length);
+            for (int i = 0; i < names.length; i++) {
+                L.newTable(0, 3);
+                L.pushString(states[i]);
+                L.setField(-2, ADAPTER_STATE_KEY);
+                L.pushNumber(latencies[i]);
+                L.setField(-2, ADAPTER_LATENCY_KEY);
+                L.pushString(descriptions[i]);
+                L.setField(-2, ADAPTER_DESCRIPTION_KEY);
+                L.setField(-2, names[i]);
             }
         }
-        @Override
-        public void onAdFailedToLoad(LoadAdError adError) {
-            JSONObject data = new JSONObject();
-            try {
-                data.put(DATA_ADUNIT_ID_KEY, adUnitId);
-                Map<String, Object> coronaEvent = new HashMap<>();
-                coronaEvent.put(EVENT_PHASE_KEY, PHASE_FAILED);
-                coronaEvent.put(EVENT_TYPE_KEY, TYPE_APPOPEN);
-                coronaEvent.put(CoronaLuaEvent.RESPONSE_KEY, RESPONSE_LOAD_FAILED);
-                coronaEvent.put(EVENT_DATA_KEY, data.toString());
-                coronaEvent.put(CoronaLuaEvent.ISERROR_KEY, true);
-                coronaEvent.put(CoronaLuaEvent.ERRORTYPE_KEY, adError.toString());
-                logMsg(ERROR_MSG, "Error while loading ad " + adError);
-                dispatchLuaEvent(coronaEvent);
-            } catch (Exception e) {
-                e.printStackTrace();
+
+        void appendJson(StringBuilder json) {
+            json.append('{');
+            for (int i = 0; i < names.length; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                CoronaAdmobEvent.appendJsonString(json, names[i]);
+                json.append(":{\"").append(ADAPTER_STATE_KEY).append("\":");
+                CoronaAdmobEvent.appendJsonString(json, states[i]);
+                json.append(",\"").append(ADAPTER_LATENCY_KEY).append("\":").append(latencies[i]);
+                json.append(",\"").append(ADAPTER_DESCRIPTION_KEY).append("\":");
+                CoronaAdmobEvent.appendJsonString(json, descriptions[i]);
+                json.append('}');
             }
+            json.append('}');
         }
     }
 
-
     // -------------------------------------------------------------------
 
-    private class CoronaAdmobBannerDelegate extends AdListener {
-        AdView currentBanner;
-        boolean isLoaded;
-
-        CoronaAdmobBannerDelegate(AdView banner) {
-            this.currentBanner = banner;
-            this.isLoaded = false;
+    // typed registry of everything the plugin keeps track of
+    // slots are added and mutated on the UI thread, the Lua thread reads them without locking
+    private static class CoronaAdmobRegistry {
+        // global settings
+        volatile boolean hasReceivedInitEvent = false;
+        volatile double yRatio = 1.0;  // Corona->device coordinate ratio, cached by updateLayoutMetrics()
+        volatile boolean layoutMetricsStale = true;  // set by configuration changes
+        int orientedHeight = 0;  // screen height in the current orientation, UI thread only
+        int orientation = ORIENTATION_PORTRAIT;  // orientation of the cached metrics, UI thread only
+        int portraitWidthDp = 0;  // screen width in each orientation, UI thread only
+        int landscapeWidthDp = 0;
+        final CoronaAdmobAdSizeCache adSizes = new CoronaAdmobAdSizeCache();
+
+        // ad type -> adUnitId used when isLoaded(), show(), hide() or height() are called without one
+        private final ConcurrentHashMap<String, String> defaultAdUnitIds = new ConcurrentHashMap<>();
+
+        // adUnitId -> slot, one map per format
+        private final ConcurrentHashMap<String, CoronaAdmobBannerSlot> banners = new ConcurrentHashMap<>();
+        private final Map<String, ConcurrentHashMap<String, CoronaAdmobFullScreenPool>> pools = new HashMap<>();
+
+        CoronaAdmobRegistry() {
+            pools.put(TYPE_INTERSTITIAL, new ConcurrentHashMap<String, CoronaAdmobFullScreenPool>());
+            pools.put(TYPE_REWARDEDVIDEO, new ConcurrentHashMap<String, CoronaAdmobFullScreenPool>());
+            pools.put(TYPE_REWARDEDINTERSTITIAL, new ConcurrentHashMap<String, CoronaAdmobFullScreenPool>());
+            pools.put(TYPE_APPOPEN, new ConcurrentHashMap<String, CoronaAdmobFullScreenPool>());
         }
 
-        @Override
-        public void onAdLoaded() {
-            // create data
-            JSONObject data = new JSONObject();
-            try {
-                data.put(DATA_ADUNIT_ID_KEY, currentBanner.getAdUnitId());
+        String getDefaultAdUnitId(String adType) {
+            return defaultAdUnitIds.get(adType);
+        }
 
-                Map<String, Object> coronaEvent = new HashMap<>();
-                coronaEvent.put(EVENT_PHASE_KEY, this.isLoaded ? PHASE_REFRESHED : PHASE_LOADED);
-                coronaEvent.put(EVENT_TYPE_KEY, TYPE_BANNER);
-                coronaEvent.put(EVENT_DATA_KEY, data.toString());
-                dispatchLuaEvent(coronaEvent);
+        void setDefaultAdUnitId(String adType, String adUnitId) {
+            defaultAdUnitIds.put(adType, adUnitId);
+        }
 
-                this.isLoaded = true;
-            } catch (Exception e) {
-                e.printStackTrace();
+        CoronaAdmobFullScreenPool getPool(String adType, String adUnitId) {
+            Map<String, CoronaAdmobFullScreenPool> formatPools = pools.get(adType);
+            if (formatPools == null || adUnitId == null) {
+                return null;
             }
+            return formatPools.get(adUnitId);
         }
 
-        @Override
-        public void onAdOpened() {
-            // create data
-            JSONObject data = new JSONObject();
-            try {
-                data.put(DATA_ADUNIT_ID_KEY, currentBanner.getAdUnitId());
+        void putPool(CoronaAdmobFullScreenPool pool) {
+            pools.get(pool.adType).put(pool.adUnitId, pool);
+        }
 
-                Map<String, Object> coronaEvent = new HashMap<>();
-                coronaEvent.put(EVENT_PHASE_KEY, PHASE_CLICKED);
-                coronaEvent.put(EVENT_TYPE_KEY, TYPE_BANNER);
-                coronaEvent.put(EVENT_DATA_KEY, data.toString());
-                dispatchLuaEvent(coronaEvent);
-            } catch (Exception e) {
-                e.printStackTrace();
+        Collection<CoronaAdmobFullScreenPool> getPools() {
+            ArrayList<CoronaAdmobFullScreenPool> result = new ArrayList<>();
+            for (Map<String, CoronaAdmobFullScreenPool> formatPools : pools.values()) {
+                result.addAll(formatPools.values());
             }
+            return result;
         }
 
-        @Override
-        public void onAdClosed() {
-            // create data
-            JSONObject data = new JSONObject();
-            try {
-                data.put(DATA_ADUNIT_ID_KEY, currentBanner.getAdUnitId());
+        CoronaAdmobBannerSlot getBanner(String adUnitId) {
+            return adUnitId != null ? banners.get(adUnitId) : null;
+        }
 
-                Map<String, Object> coronaEvent = new HashMap<>();
-                coronaEvent.put(EVENT_PHASE_KEY, PHASE_HIDDEN);
-                coronaEvent.put(EVENT_TYPE_KEY, TYPE_BANNER);
-                coronaEvent.put(EVENT_DATA_KEY, data.toString());
-                dispatchLuaEvent(coronaEvent);
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-            invalidateAllViews();
+        void putBanner(CoronaAdmobBannerSlot slot) {
+            banners.put(slot.adUnitId, slot);
         }
 
-        @Override
-        public void onAdFailedToLoad(LoadAdError error) {
-            // create data
-            JSONObject data = new JSONObject();
-            try {
-                data.put(DATA_ERRORMSG_KEY, error.getMessage());
-                data.put(DATA_ERRORCODE_KEY, error.getCode());
-                data.put(DATA_ADUNIT_ID_KEY, currentBanner.getAdUnitId());
+        Collection<CoronaAdmobBannerSlot> getBanners() {
+            return banners.values();
+        }
 
-                Map<String, Object> coronaEvent = new HashMap<>();
-                coronaEvent.put(EVENT_PHASE_KEY, PHASE_FAILED);
-                coronaEvent.put(EVENT_TYPE_KEY, TYPE_BANNER);
-                coronaEvent.put(CoronaLuaEvent.RESPONSE_KEY, RESPONSE_LOAD_FAILED);
-                coronaEvent.put(EVENT_DATA_KEY, data.toString());
-                dispatchLuaEvent(coronaEvent);
+        // every banner and pool, in no particular order
+        List<CoronaAdmobAdSlot> getSlots() {
+            ArrayList<CoronaAdmobAdSlot> result = new ArrayList<CoronaAdmobAdSlot>(banners.values());
+            result.addAll(getPools());
+            return result;
+        }
 
-                this.isLoaded = false;
-            } catch (Exception e) {
-                e.printStackTrace();
+        CoronaAdmobAdSlot getSlot(String adType, String adUnitId) {
+            if (adType.equals(TYPE_BANNER)) {
+                return getBanner(adUnitId);
+            }
+            return getPool(adType, adUnitId);
+        }
+
+        void clear() {
+            hasReceivedInitEvent = false;
+            yRatio = 1.0;
+            layoutMetricsStale = true;
+            orientedHeight = 0;
+            orientation = ORIENTATION_PORTRAIT;
+            portraitWidthDp = 0;
+            landscapeWidthDp = 0;
+            adSizes.clear();
+            defaultAdUnitIds.clear();
+            banners.clear();
+            for (Map<String, CoronaAdmobFullScreenPool> formatPools : pools.values()) {
+                formatPools.clear();
+            }
+        }
+    }
+
+    // one registry slot per format and adUnitId
+    private static abstract class CoronaAdmobAdSlot {
+        final String adType;
+        final String adUnitId;
+        final CoronaAdmobRetryState retryState = new CoronaAdmobRetryState();
+        final CoronaAdmobSlotStats stats = new CoronaAdmobSlotStats();
+
+        CoronaAdmobAdSlot(String adType, String adUnitId) {
+            this.adType = adType;
+            this.adUnitId = adUnitId;
+        }
+    }
+
+    // load and show metrics of one slot, kept in primitive arrays so recording is a few increments and never allocates
+    // written on the UI thread only, getStats() on the Lua thread may see values that are a moment old
+    private static final class CoronaAdmobSlotStats {
+        static final int REQUESTS = 0;
+        static final int FILLS = 1;
+        static final int FAILURES = 2;
+        static final int SHOWS = 3;
+        static final int SHOW_FAILURES = 4;
+        static final int CLICKS = 5;
+        static final int EXPIRED = 6;
+        private static final String[] COUNTER_KEYS = {"requests", "fills", "failures", "shows", "showFailures", "clicks", "expired"};
+
+        final long[] counters = new long[COUNTER_KEYS.length];
+        final long[] loadLatency = new long[STATS_LATENCY_BUCKETS_MS.length + 1];  // time to fill
+        final long[] showLatency = new long[STATS_LATENCY_BUCKETS_MS.length + 1];  // show() call to ad on screen
+        final long[] errorCodes = new long[STATS_MAX_ERROR_CODE + 2];               // last entry counts all higher codes
+
+        void count(int counter) {
+            counters[counter]++;
+        }
+
+        void recordLoaded(long latencyMs) {
+            counters[FILLS]++;
+            loadLatency[getBucket(latencyMs)]++;
+        }
+
+        void recordFailed(int errorCode) {
+            counters[FAILURES]++;
+            errorCodes[errorCode >= 0 && errorCode <= STATS_MAX_ERROR_CODE ? errorCode : STATS_MAX_ERROR_CODE + 1]++;
+        }
+
+        void recordShown(long latencyMs) {
+            counters[SHOWS]++;
+            showLatency[getBucket(latencyMs)]++;
+        }
+
+        private static int getBucket(long latencyMs) {
+            int bucket = 0;
+            while (bucket < STATS_LATENCY_BUCKETS_MS.length && latencyMs >= STATS_LATENCY_BUCKETS_MS[bucket]) {
+                bucket++;
+            }
+            return bucket;
+        }
+
+        // pushes an array of { adUnitId=, type=, requests=, ..., loadLatency={}, showLatency={}, errorCodes={} } tables
+        static void pushAll(LuaState L, CoronaAdmobRegistry registry) {
+            List<CoronaAdmobAdSlot> slots = registry.getSlots();
+            L.newTable(slots.size(), 0);
+            for (int i = 0; i < slots.size(); i++) {
+                CoronaAdmobAdSlot slot = slots.get(i);
+                CoronaAdmobSlotStats stats = slot.stats;
+                L.newTable(0, COUNTER_KEYS.length + 5);
+                L.pushString(slot.adUnitId);
+                L.setField(-2, DATA_ADUNIT_ID_KEY);
+                L.pushString(slot.adType);
+                L.setField(-2, EVENT_TYPE_KEY);
+                for (int counter = 0; counter < COUNTER_KEYS.length; counter++) {
+                    L.pushNumber(stats.counters[counter]);
+                    L.setField(-2, COUNTER_KEYS[counter]);
+                }
+                pushHistogram(L, stats.loadLatency);
+                L.setField(-2, STATS_LOAD_LATENCY_KEY);
+                pushHistogram(L, stats.showLatency);
+                L.setField(-2, STATS_SHOW_LATENCY_KEY);
+
+                // error code -> count, only codes that occurred
+                L.newTable();
+                for (int code = 0; code < stats.errorCodes.length; code++) {
+                    if (stats.errorCodes[code] == 0) {
+                        continue;
+                    }
+                    L.pushNumber(stats.errorCodes[code]);
+                    if (code <= STATS_MAX_ERROR_CODE) {
+                        L.rawSet(-2, code);
+                    } else {
+                        L.setField(-2, STATS_OTHER_ERROR_CODE_KEY);
+                    }
+                }
+                L.setField(-2, STATS_ERROR_CODES_KEY);
+
+                L.rawSet(-2, i + 1);
+            }
+        }
+
+        private static void pushHistogram(LuaState L, long[] buckets) {
+            L.newTable(buckets.length, 0);
+            for (int i = 0; i < buckets.length; i++) {
+                L.pushNumber(buckets[i]);
+                L.rawSet(-2, i + 1);
+            }
+        }
+
+        static void appendAllJson(StringBuilder json, CoronaAdmobRegistry registry) {
+            List<CoronaAdmobAdSlot> slots = registry.getSlots();
+            json.append('[');
+            for (int i = 0; i < slots.size(); i++) {
+                CoronaAdmobAdSlot slot = slots.get(i);
+                CoronaAdmobSlotStats stats = slot.stats;
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append("{\"").append(DATA_ADUNIT_ID_KEY).append("\":");
+                CoronaAdmobEvent.appendJsonString(json, slot.adUnitId);
+                json.append(",\"").append(EVENT_TYPE_KEY).append("\":");
+                CoronaAdmobEvent.appendJsonString(json, slot.adType);
+                for (int counter = 0; counter < COUNTER_KEYS.length; counter++) {
+                    json.append(",\"").append(COUNTER_KEYS[counter]).append("\":").append(stats.counters[counter]);
+                }
+                json.append(",\"").append(STATS_LOAD_LATENCY_KEY).append("\":");
+                appendHistogramJson(json, stats.loadLatency);
+                json.append(",\"").append(STATS_SHOW_LATENCY_KEY).append("\":");
+                appendHistogramJson(json, stats.showLatency);
+
+                json.append(",\"").append(STATS_ERROR_CODES_KEY).append("\":{");
+                boolean first = true;
+                for (int code = 0; code < stats.errorCodes.length; code++) {
+                    if (stats.errorCodes[code] == 0) {
+                        continue;
+                    }
+                    if (!first) {
+                        json.append(',');
+                    }
+                    first = false;
+                    json.append('"');
+                    if (code <= STATS_MAX_ERROR_CODE) {
+                        json.append(code);
+                    } else {
+                        json.append(STATS_OTHER_ERROR_CODE_KEY);
+                    }
+                    json.append("\":").append(stats.errorCodes[code]);
+                }
+                json.append("}}");
+            }
+            json.append(']');
+        }
+
+        private static void appendHistogramJson(StringBuilder json, long[] buckets) {
+            json.append('[');
+            for (int i = 0; i < buckets.length; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append(buckets[i]);
+            }
+            json.append(']');
+        }
+    }
+
+    private static class CoronaAdmobBannerSlot extends CoronaAdmobAdSlot {
+        volatile AdView banner;
+        volatile CoronaAdmobBannerState state = CoronaAdmobBannerState.EMPTY;
+        long hiddenSince = 0;  // SystemClock.elapsedRealtime() when the banner was last hidden, 0 while it is shown or loading
+        boolean inlineAdaptive = false;  // see load option 'inlineAdaptive'
+        boolean preloadRotation = false;  // see load option 'preloadRotation'
+        AdView rotationBanner;  // paused standby banner sized for rotationOrientation, UI thread only
+        int rotationOrientation = ORIENTATION_LANDSCAPE;
+        boolean doubleBuffer = false;  // see load option 'doubleBuffer'
+        AdView pendingBanner;  // replacement loading behind the banner on screen, UI thread only
+        AdView spareBanner;  // paused view left over from the last swap, reused by the next reload, UI thread only
+
+        CoronaAdmobBannerSlot(String adUnitId) {
+            super(TYPE_BANNER, adUnitId);
+        }
+
+        // tears the banner view down (UI thread), the slot itself stays so stats and retry state survive
+        void destroyBanner() {
+            AdView currentBanner = banner;
+            if (currentBanner == null) {
+                return;
+            }
+            banner = null;
+            destroyView(currentBanner);
+            hiddenSince = 0;
+            publishState(false);
+        }
+
+        void destroyRotationBanner() {
+            AdView standby = rotationBanner;
+            if (standby != null) {
+                rotationBanner = null;
+                destroyView(standby);
+            }
+        }
+
+        void destroyPendingBanner() {
+            AdView pending = pendingBanner;
+            if (pending != null) {
+                pendingBanner = null;
+                destroyView(pending);
+            }
+        }
+
+        // replaces the spare view, the caller pauses it first
+        void keepSpare(AdView view) {
+            if (spareBanner != null) {
+                destroyView(spareBanner);
+            }
+            spareBanner = view;
+            if (view != null) {
+                view.setVisibility(getHiddenBannerVisibility());
+            }
+        }
+
+        // the views kept next to the banner itself, none of them are on screen
+        void releaseBuffers() {
+            destroyRotationBanner();
+            destroyPendingBanner();
+            keepSpare(null);
+        }
+
+        // whether callbacks of this view still matter to the slot
+        boolean owns(AdView view) {
+            return view == banner || view == rotationBanner || view == pendingBanner;
+        }
+
+        static void destroyView(AdView view) {
+            view.setVisibility(View.INVISIBLE);
+            //noinspection ConstantConditions
+            view.setAdListener(null);
+            if (view.getParent() instanceof ViewGroup) {
+                ((ViewGroup) view.getParent()).removeView(view);
+            }
+            view.destroy();
+        }
+
+        // stops refreshes and WebView work while the banner is out of sight
+        void pause() {
+            pauseView(banner);
+        }
+
+        void resume() {
+            resumeView(banner);
+        }
+
+        // stops every view the slot owns while the runtime is suspended
+        void pauseViews() {
+            pauseView(banner);
+            pauseView(pendingBanner);
+            pauseView(rotationBanner);
+        }
+
+        // hidden banners stay paused until they are shown and a loaded standby until it is swapped in
+        void resumeViews() {
+            AdView currentBanner = banner;
+            if (currentBanner != null && currentBanner.getVisibility() == View.VISIBLE) {
+                resumeView(currentBanner);
+            }
+            resumeView(pendingBanner);
+            AdView standby = rotationBanner;
+            if (standby != null && !((CoronaAdmobBannerDelegate) standby.getAdListener()).isLoaded) {
+                resumeView(standby);
+            }
+        }
+
+        // the paused state is kept on the delegate, so it moves with the view when banners are swapped
+        static void pauseView(AdView view) {
+            if (view == null) {
+                return;
+            }
+            CoronaAdmobBannerDelegate delegate = (CoronaAdmobBannerDelegate) view.getAdListener();
+            if (!delegate.paused) {
+                view.pause();
+                delegate.paused = true;
+            }
+        }
+
+        static void resumeView(AdView view) {
+            if (view == null) {
+                return;
+            }
+            CoronaAdmobBannerDelegate delegate = (CoronaAdmobBannerDelegate) view.getAdListener();
+            if (delegate.paused) {
+                view.resume();
+                delegate.paused = false;
+            }
+        }
+
+        // called when the banner is shown or starts loading, cancels a pending idle release
+        void markActive() {
+            resume();
+            hiddenSince = 0;
+        }
+
+        // called on the UI thread whenever the banner is loaded, refreshed, shown or hidden
+        void publishState(boolean loaded) {
+            AdView currentBanner = banner;
+            int heightPx = 0;
+            boolean visible = false;
+            if (currentBanner != null) {
+                AdSize size = currentBanner.getAdSize();
+                if (size != null) {
+                    heightPx = size.getHeightInPixels(currentBanner.getContext());
+                }
+                visible = currentBanner.getVisibility() == View.VISIBLE;
+            }
+            state = new CoronaAdmobBannerState(loaded, visible, heightPx, registry.yRatio);
+        }
+    }
+
+    // adaptive banner sizes by orientation, width and anchored or inline, each one is computed by the SDK only once (UI thread)
+    private static final class CoronaAdmobAdSizeCache {
+        private final HashMap<Long, AdSize> sizes = new HashMap<>();
+
+        AdSize get(Context context, int orientation, int widthDp, boolean inline) {
+            Long key = ((long) widthDp << 2) | (orientation == ORIENTATION_LANDSCAPE ? 1 : 0) | (inline ? 2 : 0);
+            AdSize size = sizes.get(key);
+            if (size == null) {
+                if (inline) {
+                    size = orientation == ORIENTATION_LANDSCAPE
+                            ? AdSize.getLandscapeInlineAdaptiveBannerAdSize(context, widthDp)
+                            : AdSize.getPortraitInlineAdaptiveBannerAdSize(context, widthDp);
+                } else {
+                    size = orientation == ORIENTATION_LANDSCAPE
+                            ? AdSize.getLandscapeAnchoredAdaptiveBannerAdSize(context, widthDp)
+                            : AdSize.getPortraitAnchoredAdaptiveBannerAdSize(context, widthDp);
+                }
+                sizes.put(key, size);
+            }
+            return size;
+        }
+
+        // fills in the anchored sizes of both orientations ahead of the first load or rotation
+        void precompute(Context context, int portraitWidthDp, int landscapeWidthDp) {
+            get(context, ORIENTATION_PORTRAIT, portraitWidthDp, false);
+            get(context, ORIENTATION_LANDSCAPE, landscapeWidthDp, false);
+        }
+
+        void clear() {
+            sizes.clear();
+        }
+    }
+
+    // one banner show() or hide() call, adUnitId is null for the default banner
+    private static final class CoronaAdmobBannerLayoutOp {
+        final boolean show;
+        final String adUnitId;
+        final String yAlign;
+        final int yOffset;
+        final String bgColor;
+        final long requestTime;
+
+        CoronaAdmobBannerLayoutOp(boolean show, String adUnitId, String yAlign, int yOffset, String bgColor, long requestTime) {
+            this.show = show;
+            this.adUnitId = adUnitId;
+            this.yAlign = yAlign;
+            this.yOffset = yOffset;
+            this.bgColor = bgColor;
+            this.requestTime = requestTime;
+        }
+    }
+
+    // immutable banner snapshot, read by isLoaded() and height() without going through the UI thread
+    private static final class CoronaAdmobBannerState {
+        static final CoronaAdmobBannerState EMPTY = new CoronaAdmobBannerState(false, false, 0, 1.0);
+
+        final boolean loaded;
+        final boolean visible;
+        final int heightPx;
+        final double yRatio;
+
+        CoronaAdmobBannerState(boolean loaded, boolean visible, int heightPx, double yRatio) {
+            this.loaded = loaded;
+            this.visible = visible;
+            this.heightPx = heightPx;
+            this.yRatio = yRatio;
+        }
+
+        double getHeight() {
+            return heightPx / yRatio;
+        }
+    }
+
+    // -------------------------------------------------------------------
+
+    private class CoronaAdmobFullScreenDelegate extends FullScreenContentCallback implements OnUserEarnedRewardListener {
+        String adUnitId;
+        String adType;
+        CoronaAdmobFullScreenPool pool;
+        long showRequestTime;  // when show() was called, for the show latency metric
+
+        CoronaAdmobFullScreenDelegate(CoronaAdmobFullScreenPool pool, long showRequestTime) {
+            this.adUnitId = pool.adUnitId;
+            this.adType = pool.adType;
+            this.pool = pool;
+            this.showRequestTime = showRequestTime;
+        }
+
+        @Override
+        public void onUserEarnedReward(RewardItem rewardItem) {
+            boolean traced = traceBegin("admob.onUserEarnedReward");
+            CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_REWARD, TYPE_REWARDEDVIDEO);
+            event.set(CoronaAdmobEventField.ADUNIT_ID, adUnitId);
+            event.set(CoronaAdmobEventField.REWARD_ITEM, rewardItem.getType());
+            event.set(CoronaAdmobEventField.REWARD_AMOUNT, rewardItem.getAmount());
+            dispatchLuaEvent(event);
+            traceEnd(traced);
+        }
+
+        public void coronaAdOpened() {
+            CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_DISPLAYED, adType);
+            event.set(CoronaAdmobEventField.ADUNIT_ID, adUnitId);
+            dispatchLuaEvent(event);
+
+            // start loading the next ad while this one is on screen
+            final CoronaActivity coronaActivity = CoronaEnvironment.getCoronaActivity();
+            if (pool.autoRefill && coronaActivity != null) {
+                pool.refill(coronaActivity);
+            }
+        }
+
+        @Override
+        public void onAdShowedFullScreenContent() {
+            boolean traced = traceBegin("admob.onAdShowedFullScreenContent");
+            pool.stats.recordShown(SystemClock.elapsedRealtime() - showRequestTime);
+            traceEnd(traced);
+        }
+
+        @Override
+        public void onAdClicked() {
+            boolean traced = traceBegin("admob.onAdClicked");
+            pool.stats.count(CoronaAdmobSlotStats.CLICKS);
+            traceEnd(traced);
+        }
+
+        @Override
+        public void onAdDismissedFullScreenContent() {
+            boolean traced = traceBegin("admob.onAdDismissedFullScreenContent");
+            CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_CLOSED, adType);
+            event.set(CoronaAdmobEventField.ADUNIT_ID, adUnitId);
+            dispatchLuaEvent(event);
+            restoreViews();
+            traceEnd(traced);
+        }
+
+        @Override
+        public void onAdFailedToShowFullScreenContent(AdError err) {
+            boolean traced = traceBegin("admob.onAdFailedToShowFullScreenContent");
+            pool.stats.count(CoronaAdmobSlotStats.SHOW_FAILURES);
+
+            CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_FAILED, adType);
+            event.set(CoronaAdmobEventField.IS_ERROR, true);
+            event.set(CoronaAdmobEventField.ADUNIT_ID, adUnitId);
+            event.set(CoronaAdmobEventField.ERROR_MSG, err.toString());
+            event.set(CoronaAdmobEventField.ERROR_CODE, err.getCode());
+            dispatchLuaEvent(event);
+            traceEnd(traced);
+        }
+    }
+
+    // common interface of the fullscreen load delegates, so that a pool can hold any fullscreen format
+    private interface CoronaAdmobFullScreenAd {
+        // SystemClock.elapsedRealtime() at the time the ad was filled
+        long getLoadTime();
+
+        // SystemClock.elapsedRealtime() at the time the ad was requested
+        long getRequestTime();
+
+        void show(CoronaActivity activity, CoronaAdmobFullScreenDelegate delegate);
+
+        void release();
+    }
+
+    // keeps up to poolSize filled fullscreen ads for one adUnitId and hands them out oldest first
+    // (mutated on the UI thread only, so the Lua thread can count ads without locking)
+    private class CoronaAdmobFullScreenPool extends CoronaAdmobAdSlot {
+        final long expiryMillis;
+        int poolSize = 1;
+        int pendingLoads = 0;
+        boolean refreshBeforeExpiry = false;
+        boolean autoRefill = false;
+        AdRequest request;
+        private final ConcurrentLinkedDeque<CoronaAdmobFullScreenAd> ads = new ConcurrentLinkedDeque<>();
+
+        // runs on the scheduler thread and moves the actual check over to the UI thread
+        private final Runnable expiryCheck = new Runnable() {
+            @Override
+            public void run() {
+                final CoronaActivity coronaActivity = CoronaEnvironment.getCoronaActivity();
+                if (coronaActivity != null) {
+                    coronaActivity.runOnUiThread(new Runnable() {
+                        @Override
+                        public void run() {
+                            checkExpiry(coronaActivity);
+                        }
+                    });
+                }
+            }
+        };
+
+        CoronaAdmobFullScreenPool(String adType, String adUnitId) {
+            super(adType, adUnitId);
+            this.expiryMillis = simulator != null ? simulator.getExpiryMillis(adType, adUnitId) : getExpiryMillis(adType);
+        }
+
+        // apply the load() options, a poolSize of 0 or null options keep the current setting
+        void configure(int poolSize, Boolean refreshBeforeExpiry, Boolean autoRefill, AdRequest request) {
+            if (poolSize > 0) {
+                this.poolSize = poolSize;
+            }
+            if (refreshBeforeExpiry != null) {
+                this.refreshBeforeExpiry = refreshBeforeExpiry;
+            }
+            if (autoRefill != null) {
+                this.autoRefill = autoRefill;
+            }
+            this.request = request;
+        }
+
+        // request the missing ads, a full pool answers the load() call with a 'loaded' event right away
+        void fill(CoronaActivity activity) {
+            int missing = Math.max(0, poolSize - size() - pendingLoads);
+            if (missing == 0) {
+                // requests still in flight report their own 'loaded' or 'failed' event
+                if (size() > 0) {
+                    CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_LOADED, adType);
+                    event.set(CoronaAdmobEventField.ADUNIT_ID, adUnitId);
+                    dispatchLuaEvent(event);
+                }
+                return;
+            }
+            for (int i = 0; i < missing; i++) {
+                loadAd(activity);
+            }
+        }
+
+        // request only the ads missing from the pool
+        void refill(CoronaActivity activity) {
+            int missing = poolSize - size() - pendingLoads;
+            for (int i = 0; i < missing; i++) {
+                loadAd(activity);
+            }
+        }
+
+        private void loadAd(CoronaActivity activity) {
+            loadAd(activity, null);
+        }
+
+        // operation is the multi unit load() this request belongs to, or null
+        void loadAd(CoronaActivity activity, CoronaAdmobLoadOperation operation) {
+            pendingLoads++;
+            stats.count(CoronaAdmobSlotStats.REQUESTS);
+            if (simulator != null) {
+                simulator.load(this, operation);
+                return;
+            }
+            switch (adType) {
+                case TYPE_INTERSTITIAL:
+                    InterstitialAd.load(activity, adUnitId, request, new CoronaAdmobInterstitialLoadDelegate(this, operation));
+                    break;
+                case TYPE_REWARDEDVIDEO:
+                    RewardedAd.load(activity, adUnitId, request, new CoronaAdmobRewardedLoadDelegate(this, operation));
+                    break;
+                case TYPE_REWARDEDINTERSTITIAL:
+                    RewardedInterstitialAd.load(activity, adUnitId, request, new CoronaAdmobRewardedInterstitialLoadDelegate(this, operation));
+                    break;
+                case TYPE_APPOPEN:
+                    AppOpenAd.load(activity, adUnitId, request, new CoronaAdmobAppOpenLoadDelegate(this, operation));
+                    break;
+            }
+        }
+
+        private boolean isExpired(CoronaAdmobFullScreenAd ad, long now) {
+            return now - ad.getLoadTime() >= expiryMillis;
+        }
+
+        private boolean isStale(CoronaAdmobFullScreenAd ad, long now) {
+            return now - ad.getLoadTime() >= expiryMillis - EXPIRY_REFRESH_MARGIN_MS;
+        }
+
+        // called from the Lua thread by isLoaded(), expired ads are not counted
+        int size() {
+            long now = SystemClock.elapsedRealtime();
+            int count = 0;
+            for (CoronaAdmobFullScreenAd ad : ads) {
+                if (!isExpired(ad, now)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        // returns the oldest ad that has not expired yet
+        CoronaAdmobFullScreenAd poll() {
+            removeExpired();
+            return ads.poll();
+        }
+
+        void releaseAll() {
+            CoronaAdmobFullScreenAd ad;
+            while ((ad = ads.poll()) != null) {
+                ad.release();
+            }
+        }
+
+        private void removeExpired() {
+            long now = SystemClock.elapsedRealtime();
+            ArrayList<CoronaAdmobFullScreenAd> expired = null;  // only allocated once an ad has expired, poll() runs on every show()
+            Iterator<CoronaAdmobFullScreenAd> iterator = ads.iterator();
+            while (iterator.hasNext()) {
+                CoronaAdmobFullScreenAd ad = iterator.next();
+                if (isExpired(ad, now)) {
+                    iterator.remove();
+                    if (expired == null) {
+                        expired = new ArrayList<>();
+                    }
+                    expired.add(ad);
+                }
+            }
+            if (expired == null) {
+                return;
+            }
+
+            for (CoronaAdmobFullScreenAd ad : expired) {
+                ad.release();
+                stats.count(CoronaAdmobSlotStats.EXPIRED);
+
+                CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_EXPIRED, adType);
+                event.set(CoronaAdmobEventField.ADUNIT_ID, adUnitId);
+                dispatchLuaEvent(event);
+            }
+        }
+
+        private void checkExpiry(CoronaActivity activity) {
+            removeExpired();
+
+            // reload ads that are about to expire, unless replacements are already on their way
+            if (refreshBeforeExpiry && request != null) {
+                long now = SystemClock.elapsedRealtime();
+                int stale = 0;
+                for (CoronaAdmobFullScreenAd ad : ads) {
+                    if (isStale(ad, now)) {
+                        stale++;
+                    }
+                }
+                for (int i = pendingLoads; i < stale; i++) {
+                    loadAd(activity);
+                }
+            }
+
+            scheduleExpiryCheck();
+        }
+
+        // wake up at the next expiry, or at the next refresh point when refreshing is enabled
+        private void scheduleExpiryCheck() {
+            long now = SystemClock.elapsedRealtime();
+            long next = Long.MAX_VALUE;
+            for (CoronaAdmobFullScreenAd ad : ads) {
+                long expiresAt = ad.getLoadTime() + expiryMillis;
+                long refreshAt = expiresAt - EXPIRY_REFRESH_MARGIN_MS;
+                if (refreshBeforeExpiry && refreshAt > now) {
+                    next = Math.min(next, refreshAt);
+                } else {
+                    next = Math.min(next, expiresAt);
+                }
+            }
+
+            Handler handler = getSchedulerHandler();
+            handler.removeCallbacks(expiryCheck);
+            if (next != Long.MAX_VALUE) {
+                handler.postDelayed(expiryCheck, Math.max(0, next - now));
+            }
+        }
+
+        void onAdLoaded(CoronaAdmobFullScreenAd ad, CoronaAdmobLoadOperation operation) {
+            pendingLoads = Math.max(0, pendingLoads - 1);
+            retryState.onSuccess();
+            stats.recordLoaded(ad.getLoadTime() - ad.getRequestTime());
+
+            // a multi unit load() decides itself whether the ad is kept and reports its own event
+            if (operation != null) {
+                operation.onAttemptLoaded(this, ad);
+                return;
+            }
+
+            addAd(ad);
+
+            CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_LOADED, adType);
+            event.set(CoronaAdmobEventField.ADUNIT_ID, adUnitId);
+            dispatchLuaEvent(event);
+        }
+
+        void addAd(CoronaAdmobFullScreenAd ad) {
+            // a fresh ad replaces one that is about to expire, otherwise a full pool drops its oldest ad
+            long now = SystemClock.elapsedRealtime();
+            CoronaAdmobFullScreenAd evicted = null;
+            CoronaAdmobFullScreenAd oldest = ads.peek();
+            if (refreshBeforeExpiry && oldest != null && isStale(oldest, now)) {
+                evicted = ads.poll();
+            }
+            ads.add(ad);
+            if (evicted == null && ads.size() > poolSize) {
+                evicted = ads.poll();
+            }
+            if (evicted != null) {
+                evicted.release();
+            }
+            scheduleExpiryCheck();
+        }
+
+        // errorType is the full error description, LoadAdError.toString() for SDK errors
+        void onAdFailedToLoad(int errorCode, String errorMsg, String errorType, CoronaAdmobLoadOperation operation) {
+            pendingLoads = Math.max(0, pendingLoads - 1);
+            stats.recordFailed(errorCode);
+            String errorCategory = getErrorCategory(errorCode, errorMsg);
+
+            // a multi unit load() falls back to its next unit instead of retrying, the failure still counts for the circuit breaker
+            if (operation != null) {
+                if (loadRetryEnabled) {
+                    retryState.onFailure(errorCategory);
+                }
+                operation.onAttemptFailed(this, errorCode, errorMsg, errorType, errorCategory);
+                return;
+            }
+
+            // let the retry engine decide whether and when to try again
+            long retryDelay = loadRetryEnabled ? retryState.onFailure(errorCategory) : -1;
+            if (retryDelay >= 0) {
+                scheduleOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        final CoronaActivity coronaActivity = CoronaEnvironment.getCoronaActivity();
+                        if (coronaActivity != null && registry.getPool(adType, adUnitId) == CoronaAdmobFullScreenPool.this) {
+                            refill(coronaActivity);
+                        }
+                    }
+                }, retryDelay);
+            }
+
+            logMsg(ERROR_MSG, "Error while loading ad " + errorType);
+            CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_FAILED, adType);
+            event.set(CoronaAdmobEventField.RESPONSE, RESPONSE_LOAD_FAILED);
+            event.set(CoronaAdmobEventField.IS_ERROR, true);
+            event.set(CoronaAdmobEventField.ERROR_TYPE, errorType);
+            event.set(CoronaAdmobEventField.ADUNIT_ID, adUnitId);
+            event.set(CoronaAdmobEventField.ERROR_MSG, errorMsg);
+            event.set(CoronaAdmobEventField.ERROR_CODE, errorCode);
+            event.set(CoronaAdmobEventField.ERROR_CATEGORY, errorCategory);
+            if (retryDelay >= 0) {
+                event.set(CoronaAdmobEventField.RETRY_IN, retryDelay / 1000.0);
+            }
+            event.set(CoronaAdmobEventField.CIRCUIT_OPEN, retryState.isCircuitOpen());
+            dispatchLuaEvent(event);
+        }
+    }
+
+    // -------------------------------------------------------------------
+
+    // one load() call spread over several adUnitIds (see load options 'adUnitIds' and 'strategy')
+    // a waterfall tries the units one at a time in order, a race keeps up to parallel units loading at once
+    // either way the units are handled without a round trip through Lua, and a single 'loaded' or 'failed' event reports the outcome
+    private class CoronaAdmobLoadOperation {
+        final String adType;
+        final String[] adUnitIds;
+        final AdRequest request;
+        final int poolSize;
+        final Boolean refreshBeforeExpiry;
+        final Boolean autoRefill;
+        final int parallel;     // units loading at the same time, 1 for a waterfall
+        final long graceMs;     // how long a fill waits for better ranked units that are still loading
+
+        // per attempt state, written on the UI thread and read by the final event once the operation has finished
+        final CoronaAdmobFullScreenPool[] pools;
+        final CoronaAdmobFullScreenAd[] candidates;
+        final long[] startTimes;
+        final long[] latencies;
+        final String[] results;
+        int attemptCount = 0;
+        int inFlight = 0;
+        boolean graceScheduled = false;
+        boolean finished = false;
+
+        // last load error, reported when every unit failed
+        String lastErrorType;
+        String lastErrorMsg;
+        int lastErrorCode;
+        String lastErrorCategory;
+
+        CoronaAdmobLoadOperation(String adType, List<String> adUnitIds, AdRequest request, int poolSize, Boolean refreshBeforeExpiry, Boolean autoRefill, int parallel, long graceMs) {
+            this.adType = adType;
+            this.adUnitIds = adUnitIds.toArray(new String[0]);
+            this.request = request;
+            this.poolSize = poolSize;
+            this.refreshBeforeExpiry = refreshBeforeExpiry;
+            this.autoRefill = autoRefill;
+            this.parallel = parallel;
+            this.graceMs = graceMs;
+            this.pools = new CoronaAdmobFullScreenPool[this.adUnitIds.length];
+            this.candidates = new CoronaAdmobFullScreenAd[this.adUnitIds.length];
+            this.startTimes = new long[this.adUnitIds.length];
+            this.latencies = new long[this.adUnitIds.length];
+            this.results = new String[this.adUnitIds.length];
+        }
+
+        void start(CoronaActivity activity) {
+            loadNext(activity);
+            tryFinish();
+        }
+
+        // start units in list order until parallel units are loading, units paused by the circuit breaker are skipped
+        private void loadNext(CoronaActivity activity) {
+            while (attemptCount < adUnitIds.length && inFlight < parallel) {
+                int i = attemptCount++;
+                CoronaAdmobFullScreenPool pool = obtainPool(adType, adUnitIds[i]);
+                pool.configure(poolSize, refreshBeforeExpiry, autoRefill, request);
+                pools[i] = pool;
+                startTimes[i] = SystemClock.elapsedRealtime();
+
+                if (loadRetryEnabled && pool.retryState.isCircuitOpen()) {
+                    results[i] = RESPONSE_CIRCUIT_OPEN;
+                    continue;
+                }
+
+                inFlight++;
+                pool.loadAd(activity, this);
+            }
+        }
+
+        private int indexOf(CoronaAdmobFullScreenPool pool) {
+            for (int i = 0; i < attemptCount; i++) {
+                if (results[i] == null && pools[i] == pool) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // the best fill is the one ranked highest in the adUnitIds list
+        private int getBestCandidate() {
+            for (int i = 0; i < attemptCount; i++) {
+                if (candidates[i] != null) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void onAttemptLoaded(CoronaAdmobFullScreenPool pool, CoronaAdmobFullScreenAd ad) {
+            int i = indexOf(pool);
+            if (finished || i < 0) {
+                // too late, the operation already picked its ad
+                ad.release();
+                return;
+            }
+            inFlight--;
+            latencies[i] = SystemClock.elapsedRealtime() - startTimes[i];
+            results[i] = PHASE_LOADED;
+            candidates[i] = ad;
+            tryFinish();
+        }
+
+        void onAttemptFailed(CoronaAdmobFullScreenPool pool, int errorCode, String errorMsg, String errorType, String errorCategory) {
+            int i = indexOf(pool);
+            if (finished || i < 0) {
+                return;
+            }
+            inFlight--;
+            latencies[i] = SystemClock.elapsedRealtime() - startTimes[i];
+            results[i] = errorCategory;
+            lastErrorType = errorType;
+            lastErrorMsg = errorMsg;
+            lastErrorCode = errorCode;
+            lastErrorCategory = errorCategory;
+            logMsg(WARNING_MSG, "adUnitId '" + pool.adUnitId + "' failed to load (" + errorCategory + ")");
+
+            // keep the next units coming until something fills
+            CoronaActivity coronaActivity = CoronaEnvironment.getCoronaActivity();
+            if (coronaActivity != null && getBestCandidate() < 0) {
+                loadNext(coronaActivity);
+            }
+            tryFinish();
+        }
+
+        private void tryFinish() {
+            if (finished) {
+                return;
+            }
+
+            int best = getBestCandidate();
+            if (best < 0) {
+                if (inFlight == 0) {
+                    finish(-1);
+                }
+                return;
+            }
+
+            // done if no better ranked unit is still loading, or if there is no grace period to wait for one
+            boolean betterPending = false;
+            for (int i = 0; i < best; i++) {
+                if (results[i] == null) {
+                    betterPending = true;
+                    break;
+                }
+            }
+            if (!betterPending || graceMs <= 0) {
+                finish(best);
+            } else if (!graceScheduled) {
+                graceScheduled = true;
+                scheduleOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!finished) {
+                            finish(getBestCandidate());
+                        }
+                    }
+                }, graceMs);
+            }
+        }
+
+        // send the one event for this load() call, winner is -1 if no unit filled
+        private void finish(int winner) {
+            finished = true;
+
+            // only the winner goes into its pool, the other fills are released and pending loads are dropped when they arrive
+            for (int i = 0; i < attemptCount; i++) {
+                if (results[i] == null) {
+                    results[i] = RESULT_CANCELLED;
+                    latencies[i] = SystemClock.elapsedRealtime() - startTimes[i];
+                } else if (candidates[i] != null && i != winner) {
+                    candidates[i].release();
+                    results[i] = RESULT_RELEASED;
+                }
+                if (i != winner) {
+                    candidates[i] = null;
+                }
+            }
+
+            if (winner >= 0) {
+                CoronaAdmobFullScreenPool pool = pools[winner];
+                pool.addAd(candidates[winner]);
+                candidates[winner] = null;
+
+                // the unit that filled becomes the default for isLoaded() and show()
+                registry.setDefaultAdUnitId(adType, pool.adUnitId);
+
+                CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_LOADED, adType);
+                event.set(CoronaAdmobEventField.ADUNIT_ID, pool.adUnitId);
+                event.set(CoronaAdmobEventField.ATTEMPTS, this);
+                dispatchLuaEvent(event);
+                return;
+            }
+
+            String lastAdUnitId = adUnitIds[adUnitIds.length - 1];
+            CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_FAILED, adType);
+            event.set(CoronaAdmobEventField.IS_ERROR, true);
+            event.set(CoronaAdmobEventField.ADUNIT_ID, lastAdUnitId);
+            if (lastErrorType != null) {
+                logMsg(ERROR_MSG, "Error while loading ad, no adUnitId filled. Last error " + lastErrorType);
+                event.set(CoronaAdmobEventField.RESPONSE, RESPONSE_LOAD_FAILED);
+                event.set(CoronaAdmobEventField.ERROR_TYPE, lastErrorType);
+                event.set(CoronaAdmobEventField.ERROR_MSG, lastErrorMsg);
+                event.set(CoronaAdmobEventField.ERROR_CODE, lastErrorCode);
+                event.set(CoronaAdmobEventField.ERROR_CATEGORY, lastErrorCategory);
+            } else {
+                // every unit was paused by the circuit breaker
+                logMsg(WARNING_MSG, "Too many no-fills for all adUnitIds, load() is paused");
+                event.set(CoronaAdmobEventField.RESPONSE, RESPONSE_CIRCUIT_OPEN);
+                event.set(CoronaAdmobEventField.ERROR_CATEGORY, ERROR_CATEGORY_NO_FILL);
+                event.set(CoronaAdmobEventField.CIRCUIT_OPEN, true);
+            }
+            event.set(CoronaAdmobEventField.ATTEMPTS, this);
+            dispatchLuaEvent(event);
+        }
+    }
+
+    // -------------------------------------------------------------------
+
+    // load failure tracking for one adUnitId: jittered exponential backoff plus a circuit breaker
+    // that pauses loading after repeated no-fills (written on the UI thread, read from the Lua thread)
+    private static class CoronaAdmobRetryState {
+        private int consecutiveFailures = 0;
+        private int consecutiveNoFills = 0;
+        private volatile long circuitOpenUntil = 0;
+
+        boolean isCircuitOpen() {
+            return SystemClock.elapsedRealtime() < circuitOpenUntil;
+        }
+
+        long getCircuitRemainingMs() {
+            return Math.max(0, circuitOpenUntil - SystemClock.elapsedRealtime());
+        }
+
+        void onSuccess() {
+            consecutiveFailures = 0;
+            consecutiveNoFills = 0;
+            circuitOpenUntil = 0;
+        }
+
+        // returns the delay before the next attempt in milliseconds, or -1 if the load should not be retried
+        long onFailure(String errorCategory) {
+            if (errorCategory.equals(ERROR_CATEGORY_INVALID_REQUEST)) {
+                // retrying a request the SDK rejects will not help
+                consecutiveFailures = 0;
+                return -1;
+            }
+
+            consecutiveFailures++;
+            if (errorCategory.equals(ERROR_CATEGORY_NO_FILL)) {
+                consecutiveNoFills++;
+            } else {
+                consecutiveNoFills = 0;
+            }
+
+            // open the circuit and probe again once the cool-down is over
+            if (consecutiveNoFills >= circuitNoFillThreshold) {
+                consecutiveNoFills = 0;
+                consecutiveFailures = 0;
+                circuitOpenUntil = SystemClock.elapsedRealtime() + circuitCooldownMs;
+                return circuitCooldownMs;
+            }
+
+            if (consecutiveFailures > retryMaxAttempts) {
+                consecutiveFailures = 0;
+                return -1;
+            }
+
+            // throttled and no-fill responses need more breathing room than network hiccups
+            long baseDelay;
+            switch (errorCategory) {
+                case ERROR_CATEGORY_NETWORK:
+                    baseDelay = 2000;
+                    break;
+                case ERROR_CATEGORY_TOO_MANY_REQUESTS:
+                    baseDelay = 30000;
+                    break;
+                case ERROR_CATEGORY_NO_FILL:
+                    baseDelay = 10000;
+                    break;
+                default:
+                    baseDelay = 5000;
+                    break;
+            }
+            long delay = Math.min(retryMaxDelayMs, baseDelay << Math.min(consecutiveFailures - 1, 16));
+
+            // equal jitter: half fixed, half random, so retries of many ad units do not line up
+            return delay / 2 + (long) (retryJitter.nextDouble() * (delay / 2));
+        }
+    }
+
+    // -------------------------------------------------------------------
+
+    // fill, latency, error and expiry settings the simulator uses for one adUnitId (see init option 'simulator')
+    private static final class CoronaAdmobSimulatorProfile {
+        double fillRate = 1.0;
+        long latencyMinMs = 0;
+        long latencyMaxMs = 0;
+        double latencyMeanMs = -1;     // normally distributed latency when set, uniform between min and max otherwise
+        double latencyStdDevMs = 0;
+        int[] errorCodes = {AdRequest.ERROR_CODE_NO_FILL};
+        long expiryMs = 0;             // 0 keeps the expiry of the ad type
+        long showDurationMs = 0;
+
+        void setFixedLatency(long latencyMs) {
+            latencyMinMs = latencyMs;
+            latencyMaxMs = latencyMs;
+            latencyMeanMs = -1;
+            latencyStdDevMs = 0;
+        }
+
+        CoronaAdmobSimulatorProfile copy() {
+            CoronaAdmobSimulatorProfile profile = new CoronaAdmobSimulatorProfile();
+            profile.fillRate = fillRate;
+            profile.latencyMinMs = latencyMinMs;
+            profile.latencyMaxMs = latencyMaxMs;
+            profile.latencyMeanMs = latencyMeanMs;
+            profile.latencyStdDevMs = latencyStdDevMs;
+            profile.errorCodes = errorCodes;
+            profile.expiryMs = expiryMs;
+            profile.showDurationMs = showDurationMs;
+            return profile;
+        }
+    }
+
+    // in-process stand-in for the ad network, answers every request with a fill or an error after a simulated latency
+    // all draws come from one seeded generator on the UI thread, so the same calls play out the same way on every run
+    private class CoronaAdmobSimulator {
+        final long seed;
+        final Random random;
+        final CoronaAdmobSimulatorProfile defaults;
+        final Map<String, CoronaAdmobSimulatorProfile> adUnits = new HashMap<>();
+
+        CoronaAdmobSimulator(long seed, CoronaAdmobSimulatorProfile defaults) {
+            this.seed = seed;
+            this.random = new Random(seed);
+            this.defaults = defaults;
+        }
+
+        CoronaAdmobSimulatorProfile getProfile(String adUnitId) {
+            CoronaAdmobSimulatorProfile profile = adUnits.get(adUnitId);
+            return profile != null ? profile : defaults;
+        }
+
+        long getExpiryMillis(String adType, String adUnitId) {
+            long expiryMs = getProfile(adUnitId).expiryMs;
+            return expiryMs > 0 ? expiryMs : LuaLoader.getExpiryMillis(adType);
+        }
+
+        // returns -1 for a fill, otherwise the error code the request fails with
+        private int drawResult(CoronaAdmobSimulatorProfile profile) {
+            if (random.nextDouble() < profile.fillRate) {
+                return -1;
+            }
+            return profile.errorCodes[random.nextInt(profile.errorCodes.length)];
+        }
+
+        private long drawLatency(CoronaAdmobSimulatorProfile profile) {
+            if (profile.latencyMeanMs >= 0) {
+                return Math.max(0, Math.round(profile.latencyMeanMs + random.nextGaussian() * profile.latencyStdDevMs));
+            }
+            return profile.latencyMinMs + (long) (random.nextDouble() * (profile.latencyMaxMs - profile.latencyMinMs));
+        }
+
+        private String getErrorMsg(int errorCode) {
+            return "Simulated load failure (code " + errorCode + ")";
+        }
+
+        void load(CoronaAdmobFullScreenPool pool, CoronaAdmobLoadOperation operation) {
+            CoronaAdmobSimulatorProfile profile = getProfile(pool.adUnitId);
+            final CoronaAdmobSimulatedAd ad = new CoronaAdmobSimulatedAd(pool, operation, profile.showDurationMs);
+            final int errorCode = drawResult(profile);
+            scheduleOnUiThread(new Runnable() {
+                @Override
+                public void run() {
+                    if (errorCode < 0) {
+                        ad.onAdLoaded();
+                    } else {
+                        ad.onAdFailedToLoad(errorCode, getErrorMsg(errorCode));
+                    }
+                }
+            }, drawLatency(profile));
+        }
+
+        void loadBanner(final CoronaAdmobBannerDelegate delegate) {
+            CoronaAdmobSimulatorProfile profile = getProfile(delegate.slot.adUnitId);
+            final AdView banner = delegate.currentBanner;
+            final int serial = delegate.loadSerial;
+            final int errorCode = drawResult(profile);
+            scheduleOnUiThread(new Runnable() {
+                @Override
+                public void run() {
+                    // a replaced banner has been destroyed and a reloaded one dropped this request, the SDK would not call back either
+                    if (!delegate.slot.owns(banner) || delegate.loadSerial != serial) {
+                        return;
+                    }
+                    if (errorCode < 0) {
+                        delegate.onAdLoaded();
+                    } else {
+                        delegate.onLoadFailed(errorCode, getErrorMsg(errorCode));
+                    }
+                }
+            }, drawLatency(profile));
+        }
+    }
+
+    // fullscreen ad filled by the simulator, goes through the same pool and delegate callbacks as an SDK ad
+    private class CoronaAdmobSimulatedAd implements CoronaAdmobFullScreenAd {
+        long loadTime;
+        final long requestTime = SystemClock.elapsedRealtime();
+        final int traceCookie = traceBeginAsync(TRACE_LOAD_REQUEST);
+        final CoronaAdmobFullScreenPool pool;
+        final CoronaAdmobLoadOperation operation;
+        final long showDurationMs;
+
+        CoronaAdmobSimulatedAd(CoronaAdmobFullScreenPool pool, CoronaAdmobLoadOperation operation, long showDurationMs) {
+            this.pool = pool;
+            this.operation = operation;
+            this.showDurationMs = showDurationMs;
+        }
+
+        void onAdLoaded() {
+            boolean traced = traceBegin("admob.onAdLoaded");
+            traceEndAsync(TRACE_LOAD_REQUEST, traceCookie);
+            loadTime = SystemClock.elapsedRealtime();
+            pool.onAdLoaded(this, operation);
+            traceEnd(traced);
+        }
+
+        void onAdFailedToLoad(int errorCode, String errorMsg) {
+            boolean traced = traceBegin("admob.onAdFailedToLoad");
+            traceEndAsync(TRACE_LOAD_REQUEST, traceCookie);
+            String errorType = "{ \"Code\": " + errorCode + ", \"Message\": \"" + errorMsg + "\", \"Domain\": \"" + SIMULATOR_ERROR_DOMAIN + "\" }";
+            pool.onAdFailedToLoad(errorCode, errorMsg, errorType, operation);
+            traceEnd(traced);
+        }
+
+        @Override
+        public long getLoadTime() {
+            return loadTime;
+        }
+
+        @Override
+        public long getRequestTime() {
+            return requestTime;
+        }
+
+        @Override
+        public void show(CoronaActivity activity, final CoronaAdmobFullScreenDelegate delegate) {
+            delegate.coronaAdOpened();
+            delegate.onAdShowedFullScreenContent();
+
+            // the user watches the ad for showDuration, then earns the reward and closes it
+            final boolean rewarded = pool.adType.equals(TYPE_REWARDEDVIDEO) || pool.adType.equals(TYPE_REWARDEDINTERSTITIAL);
+            scheduleOnUiThread(new Runnable() {
+                @Override
+                public void run() {
+                    if (rewarded) {
+                        delegate.onUserEarnedReward(new RewardItem() {
+                            @Override
+                            public int getAmount() {
+                                return 1;
+                            }
+
+                            @NonNull
+                            @Override
+                            public String getType() {
+                                return SIMULATOR_REWARD_TYPE;
+                            }
+                        });
+                    }
+                    delegate.onAdDismissedFullScreenContent();
+                }
+            }, showDurationMs);
+        }
+
+        @Override
+        public void release() {
+            // nothing is held besides this object
+        }
+    }
+
+    // -------------------------------------------------------------------
+
+    private class CoronaAdmobInterstitialLoadDelegate extends InterstitialAdLoadCallback implements CoronaAdmobFullScreenAd {
+        public InterstitialAd interstitialAd;
+        long loadTime;
+        final long requestTime = SystemClock.elapsedRealtime();
+        final int traceCookie = traceBeginAsync(TRACE_LOAD_REQUEST);
+        final CoronaAdmobFullScreenPool pool;
+        final CoronaAdmobLoadOperation operation;
+
+        CoronaAdmobInterstitialLoadDelegate(CoronaAdmobFullScreenPool pool, CoronaAdmobLoadOperation operation) {
+            this.pool = pool;
+            this.operation = operation;
+        }
+
+        @Override
+        public void onAdLoaded(InterstitialAd ad) {
+            boolean traced = traceBegin("admob.onAdLoaded");
+            traceEndAsync(TRACE_LOAD_REQUEST, traceCookie);
+            interstitialAd = ad;
+            loadTime = SystemClock.elapsedRealtime();
+            pool.onAdLoaded(this, operation);
+            traceEnd(traced);
+        }
+
+        @Override
+        public long getLoadTime() {
+            return loadTime;
+        }
+
+        @Override
+        public long getRequestTime() {
+            return requestTime;
+        }
+
+        @Override
+        public void onAdFailedToLoad(LoadAdError adError) {
+            boolean traced = traceBegin("admob.onAdFailedToLoad");
+            traceEndAsync(TRACE_LOAD_REQUEST, traceCookie);
+            pool.onAdFailedToLoad(adError.getCode(), adError.getMessage(), adError.toString(), operation);
+            traceEnd(traced);
+        }
+
+        @Override
+        public void show(CoronaActivity activity, CoronaAdmobFullScreenDelegate delegate) {
+            interstitialAd.setFullScreenContentCallback(delegate);
+            delegate.coronaAdOpened();
+            interstitialAd.show(activity);
+            interstitialAd = null;
+        }
+
+        @Override
+        public void release() {
+            if (interstitialAd != null) {
+                interstitialAd.setFullScreenContentCallback(null);
+                interstitialAd = null;
+            }
+        }
+    }
+
+    private class CoronaAdmobRewardedLoadDelegate extends RewardedAdLoadCallback implements CoronaAdmobFullScreenAd {
+        public RewardedAd rewardedAd;
+        long loadTime;
+        final long requestTime = SystemClock.elapsedRealtime();
+        final int traceCookie = traceBeginAsync(TRACE_LOAD_REQUEST);
+        final CoronaAdmobFullScreenPool pool;
+        final CoronaAdmobLoadOperation operation;
+
+        CoronaAdmobRewardedLoadDelegate(CoronaAdmobFullScreenPool pool, CoronaAdmobLoadOperation operation) {
+            this.pool = pool;
+            this.operation = operation;
+        }
+
+        @Override
+        public void onAdLoaded(RewardedAd ad) {
+            boolean traced = traceBegin("admob.onAdLoaded");
+            traceEndAsync(TRACE_LOAD_REQUEST, traceCookie);
+            rewardedAd = ad;
+            loadTime = SystemClock.elapsedRealtime();
+            pool.onAdLoaded(this, operation);
+            traceEnd(traced);
+        }
+
+        @Override
+        public long getLoadTime() {
+            return loadTime;
+        }
+
+        @Override
+        public long getRequestTime() {
+            return requestTime;
+        }
+
+        @Override
+        public void onAdFailedToLoad(LoadAdError adError) {
+            boolean traced = traceBegin("admob.onAdFailedToLoad");
+            traceEndAsync(TRACE_LOAD_REQUEST, traceCookie);
+            pool.onAdFailedToLoad(adError.getCode(), adError.getMessage(), adError.toString(), operation);
+            traceEnd(traced);
+        }
+
+        @Override
+        public void show(CoronaActivity activity, CoronaAdmobFullScreenDelegate delegate) {
+            delegate.coronaAdOpened();
+            rewardedAd.setFullScreenContentCallback(delegate);
+            rewardedAd.show(activity, delegate);
+            rewardedAd = null;
+        }
+
+        @Override
+        public void release() {
+            if (rewardedAd != null) {
+                rewardedAd.setFullScreenContentCallback(null);
+                rewardedAd = null;
+            }
+        }
+    }
+
+
+    // -------------------------------------------------------------------
+
+    private class CoronaAdmobRewardedInterstitialLoadDelegate extends RewardedInterstitialAdLoadCallback implements CoronaAdmobFullScreenAd {
+        public RewardedInterstitialAd rewardedInterstitialAd;
+        long loadTime;
+        final long requestTime = SystemClock.elapsedRealtime();
+        final int traceCookie = traceBeginAsync(TRACE_LOAD_REQUEST);
+        final CoronaAdmobFullScreenPool pool;
+        final CoronaAdmobLoadOperation operation;
+
+        CoronaAdmobRewardedInterstitialLoadDelegate(CoronaAdmobFullScreenPool pool, CoronaAdmobLoadOperation operation) {
+            this.pool = pool;
+            this.operation = operation;
+        }
+
+        @Override
+        public void onAdLoaded(RewardedInterstitialAd ad) {
+            boolean traced = traceBegin("admob.onAdLoaded");
+            traceEndAsync(TRACE_LOAD_REQUEST, traceCookie);
+            rewardedInterstitialAd = ad;
+            loadTime = SystemClock.elapsedRealtime();
+            pool.onAdLoaded(this, operation);
+            traceEnd(traced);
+        }
+
+        @Override
+        public long getLoadTime() {
+            return loadTime;
+        }
+
+        @Override
+        public long getRequestTime() {
+            return requestTime;
+        }
+
+        @Override
+        public void onAdFailedToLoad(LoadAdError adError) {
+            boolean traced = traceBegin("admob.onAdFailedToLoad");
+            traceEndAsync(TRACE_LOAD_REQUEST, traceCookie);
+            pool.onAdFailedToLoad(adError.getCode(), adError.getMessage(), adError.toString(), operation);
+            traceEnd(traced);
+        }
+
+        @Override
+        public void show(CoronaActivity activity, CoronaAdmobFullScreenDelegate delegate) {
+            delegate.coronaAdOpened();
+            rewardedInterstitialAd.setFullScreenContentCallback(delegate);
+            rewardedInterstitialAd.show(activity, delegate);
+            rewardedInterstitialAd = null;
+        }
+
+        @Override
+        public void release() {
+            if (rewardedInterstitialAd != null) {
+                rewardedInterstitialAd.setFullScreenContentCallback(null);
+                rewardedInterstitialAd = null;
+            }
+        }
+    }
+
+
+    // -------------------------------------------------------------------
+
+    private class CoronaAdmobAppOpenLoadDelegate extends AppOpenAd.AppOpenAdLoadCallback implements CoronaAdmobFullScreenAd {
+        public AppOpenAd appOpenAd;
+        long loadTime;
+        final long requestTime = SystemClock.elapsedRealtime();
+        final int traceCookie = traceBeginAsync(TRACE_LOAD_REQUEST);
+        final CoronaAdmobFullScreenPool pool;
+        final CoronaAdmobLoadOperation operation;
+
+        CoronaAdmobAppOpenLoadDelegate(CoronaAdmobFullScreenPool pool, CoronaAdmobLoadOperation operation) {
+            this.pool = pool;
+            this.operation = operation;
+        }
+
+        @Override
+        public void onAdLoaded(AppOpenAd ad) {
+            boolean traced = traceBegin("admob.onAdLoaded");
+            traceEndAsync(TRACE_LOAD_REQUEST, traceCookie);
+            appOpenAd = ad;
+            loadTime = SystemClock.elapsedRealtime();
+            pool.onAdLoaded(this, operation);
+            traceEnd(traced);
+        }
+
+        @Override
+        public long getLoadTime() {
+            return loadTime;
+        }
+
+        @Override
+        public long getRequestTime() {
+            return requestTime;
+        }
+
+        @Override
+        public void onAdFailedToLoad(LoadAdError adError) {
+            boolean traced = traceBegin("admob.onAdFailedToLoad");
+            traceEndAsync(TRACE_LOAD_REQUEST, traceCookie);
+            pool.onAdFailedToLoad(adError.getCode(), adError.getMessage(), adError.toString(), operation);
+            traceEnd(traced);
+        }
+
+        @Override
+        public void show(CoronaActivity activity, CoronaAdmobFullScreenDelegate delegate) {
+            delegate.coronaAdOpened();
+            appOpenAd.setFullScreenContentCallback(delegate);
+            appOpenAd.show(activity);
+            appOpenAd = null;
+        }
+
+        @Override
+        public void release() {
+            if (appOpenAd != null) {
+                appOpenAd.setFullScreenContentCallback(null);
+                appOpenAd = null;
+            }
+        }
+    }
+
+
+    // -------------------------------------------------------------------
+
+    private class CoronaAdmobBannerDelegate extends AdListener {
+        CoronaAdmobBannerSlot slot;
+        AdView currentBanner;
+        AdRequest request;
+        boolean isLoaded;
+        boolean paused = false;    // see CoronaAdmobBannerSlot.pauseView()
+        long loadRequestTime = 0;  // 0 while the SDK refreshes the banner on its own
+        int traceCookie = 0;
+        int loadSerial = 0;        // bumped by every loadAd(), so callbacks of an earlier request on a reused view can tell
+
+        CoronaAdmobBannerDelegate(CoronaAdmobBannerSlot slot, AdView banner, AdRequest request) {
+            this.slot = slot;
+            this.currentBanner = banner;
+            this.request = request;
+            this.isLoaded = false;
+        }
+
+        void loadAd() {
+            loadSerial++;
+            if (slot.banner == currentBanner) {
+                slot.markActive();
+            }
+            slot.stats.count(CoronaAdmobSlotStats.REQUESTS);
+            loadRequestTime = SystemClock.elapsedRealtime();
+
+            // a reload, retry or restarted replacement supersedes a request that is still pending, close its slice first
+            traceEndAsync(TRACE_LOAD_REQUEST, traceCookie);
+            traceCookie = traceBeginAsync(TRACE_LOAD_REQUEST);
+            if (simulator != null) {
+                simulator.loadBanner(this);
+                return;
+            }
+            currentBanner.loadAd(request);
+        }
+
+        // refreshes are requested by the SDK, count them when they complete
+        private long takeLoadLatency() {
+            traceEndAsync(TRACE_LOAD_REQUEST, traceCookie);
+            traceCookie = 0;
+            if (loadRequestTime == 0) {
+                slot.stats.count(CoronaAdmobSlotStats.REQUESTS);
+                return -1;
+            }
+            long latency = SystemClock.elapsedRealtime() - loadRequestTime;
+            loadRequestTime = 0;
+            return latency;
+        }
+
+        // the banner preloaded for the other orientation reports nothing to Lua until a rotation swaps it in
+        private boolean isStandby() {
+            return slot.rotationBanner == currentBanner;
+        }
+
+        @Override
+        public void onAdLoaded() {
+            boolean traced = traceBegin("admob.onAdLoaded");
+            long latency = takeLoadLatency();
+            if (latency >= 0) {
+                slot.stats.recordLoaded(latency);
+            } else {
+                slot.stats.count(CoronaAdmobSlotStats.FILLS);
+            }
+
+            if (isStandby()) {
+                this.isLoaded = true;
+                CoronaAdmobBannerSlot.pauseView(currentBanner);
+                traceEnd(traced);
+                return;
+            }
+            if (slot.pendingBanner == currentBanner) {
+                swapInPendingBanner(slot);
+            }
+            slot.retryState.onSuccess();
+
+            CoronaAdmobEvent event = CoronaAdmobEvent.obtain(this.isLoaded ? PHASE_REFRESHED : PHASE_LOADED, TYPE_BANNER);
+            event.set(CoronaAdmobEventField.ADUNIT_ID, currentBanner.getAdUnitId());
+            dispatchLuaEvent(event);
+
+            this.isLoaded = true;
+
+            // a refresh may change the adaptive height, so always republish
+            if (slot.banner == currentBanner) {
+                slot.publishState(true);
+
+                // a preloaded banner waits paused until it is shown
+                if (currentBanner.getVisibility() != View.VISIBLE) {
+                    onBannerHidden(slot);
+                }
+            }
+            traceEnd(traced);
+        }
+
+        @Override
+        public void onAdOpened() {
+            boolean traced = traceBegin("admob.onAdOpened");
+            slot.stats.count(CoronaAdmobSlotStats.CLICKS);
+
+            CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_CLICKED, TYPE_BANNER);
+            event.set(CoronaAdmobEventField.ADUNIT_ID, currentBanner.getAdUnitId());
+            dispatchLuaEvent(event);
+            traceEnd(traced);
+        }
+
+        @Override
+        public void onAdClosed() {
+            boolean traced = traceBegin("admob.onAdClosed");
+            CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_HIDDEN, TYPE_BANNER);
+            event.set(CoronaAdmobEventField.ADUNIT_ID, currentBanner.getAdUnitId());
+            dispatchLuaEvent(event);
+            restoreViews();
+            traceEnd(traced);
+        }
+
+        @Override
+        public void onAdFailedToLoad(LoadAdError error) {
+            boolean traced = traceBegin("admob.onAdFailedToLoad");
+            onLoadFailed(error.getCode(), error.getMessage());
+            traceEnd(traced);
+        }
+
+        void onLoadFailed(int errorCode, String errorMsg) {
+            final String adUnitId = currentBanner.getAdUnitId();
+            boolean refresh = takeLoadLatency() < 0;
+            slot.stats.recordFailed(errorCode);
+
+            // a standby banner is simply not swapped in, the next load() tries again
+            if (isStandby()) {
+                this.isLoaded = false;
+                return;
+            }
+
+            // let the retry engine decide whether and when to try again, a failed replacement leaves the current banner in place
+            // a failed refresh is left to the SDK, which requests again on its own refresh interval
+            boolean pending = slot.pendingBanner == currentBanner;
+            String errorCategory = getErrorCategory(errorCode, errorMsg);
+            CoronaAdmobRetryState retryState = slot.retryState;
+            long retryDelay = loadRetryEnabled && !pending && !refresh ? retryState.onFailure(errorCategory) : -1;
+            if (retryDelay >= 0) {
+                final int retrySerial = loadSerial;
+                scheduleOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        // only retry if this banner was not replaced or reloaded in the meantime
+                        if (slot.banner == currentBanner && loadSerial == retrySerial) {
+                            loadAd();
+                        }
+                    }
+                }, retryDelay);
+            }
+
+            CoronaAdmobEvent event = CoronaAdmobEvent.obtain(PHASE_FAILED, TYPE_BANNER);
+            event.set(CoronaAdmobEventField.RESPONSE, RESPONSE_LOAD_FAILED);
+            event.set(CoronaAdmobEventField.IS_ERROR, true);
+            event.set(CoronaAdmobEventField.ADUNIT_ID, adUnitId);
+            event.set(CoronaAdmobEventField.ERROR_MSG, errorMsg);
+            event.set(CoronaAdmobEventField.ERROR_CODE, errorCode);
+            event.set(CoronaAdmobEventField.ERROR_CATEGORY, errorCategory);
+            if (retryDelay >= 0) {
+                event.set(CoronaAdmobEventField.RETRY_IN, retryDelay / 1000.0);
+            }
+            event.set(CoronaAdmobEventField.CIRCUIT_OPEN, retryState.isCircuitOpen());
+            dispatchLuaEvent(event);
+
+            this.isLoaded = false;
+
+            if (pending) {
+                slot.pendingBanner = null;
+                CoronaAdmobBannerSlot.pauseView(currentBanner);
+                slot.keepSpare(currentBanner);
+            } else if (slot.banner == currentBanner) {
+                slot.publishState(false);
+                if (currentBanner.getVisibility() != View.VISIBLE) {
+                    onBannerHidden(slot);
+                }
             }
         }
     }